@@ -0,0 +1,113 @@
+package com.org.springboot4.benchmarks;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result ({@code -rf json}) with the stored baseline and fails on regressions.
+ * <p>
+ * A benchmark regresses when its score or its normalized allocation ({@code gc.alloc.rate.norm}, only present
+ * when run with {@code -prof gc}) is worse than the baseline by more than the threshold.
+ * Usage: {@code java -cp benchmarks.jar com.org.springboot4.benchmarks.BaselineComparator
+ * baseline.json current.json [thresholdPercent]}; exits with status 1 when anything regressed.
+ */
+public final class BaselineComparator {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private BaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BaselineComparator <baseline.json> <current.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        Map<String, JsonNode> baseline = load(Path.of(args[0]));
+        Map<String, JsonNode> current = load(Path.of(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-80s %14s %14s %9s %12s %12s %9s%n",
+                "benchmark", "base score", "score", "delta", "base B/op", "B/op", "delta");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode base = baseline.get(entry.getKey());
+            if (base == null) {
+                System.out.printf("%-80s %s%n", entry.getKey(), "(new, no baseline)");
+                continue;
+            }
+            JsonNode now = entry.getValue();
+            double baseScore = base.path("primaryMetric").path("score").asDouble();
+            double score = now.path("primaryMetric").path("score").asDouble();
+            // Throughput: higher is better; time modes: lower is better
+            boolean higherIsBetter = "thrpt".equals(now.path("mode").asString());
+            double scoreDelta = percentChange(baseScore, score);
+            boolean slower = higherIsBetter ? scoreDelta < -threshold : scoreDelta > threshold;
+
+            Double baseAlloc = allocation(base);
+            Double alloc = allocation(now);
+            Double allocDelta = baseAlloc != null && alloc != null ? percentChange(baseAlloc, alloc) : null;
+            // Allocation of a few bytes per op is noise-free but tiny, so require at least 16 B/op extra
+            boolean allocates = allocDelta != null && allocDelta > threshold && alloc - baseAlloc >= 16;
+
+            boolean regressed = slower || allocates;
+            regressions += regressed ? 1 : 0;
+            System.out.printf("%-80s %14.3f %14.3f %+8.1f%% %12s %12s %9s%s%n",
+                    entry.getKey(), baseScore, score, scoreDelta,
+                    format(baseAlloc), format(alloc), allocDelta != null ? String.format("%+.1f%%", allocDelta) : "-",
+                    regressed ? "  REGRESSION" : "");
+        }
+        for (String missing : baseline.keySet()) {
+            if (!current.containsKey(missing)) {
+                System.out.printf("%-80s %s%n", missing, "(in baseline, not run)");
+            }
+        }
+
+        System.out.printf("%n%d regression(s) above %.1f%%%n", regressions, threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    // Results keyed by benchmark method plus its parameters, e.g. "EventCodecBenchmark.serialize{eventType=..}"
+    private static Map<String, JsonNode> load(Path file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        try (InputStream in = Files.newInputStream(file)) {
+            for (JsonNode result : JsonMapper.builder().build().readTree(in)) {
+                String benchmark = result.path("benchmark").asString();
+                String name = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+                Map<String, String> params = new TreeMap<>();
+                result.path("params").properties().forEach(param -> params.put(param.getKey(), param.getValue().asString()));
+                results.put(params.isEmpty() ? name : name + params, result);
+            }
+        }
+        return results;
+    }
+
+    private static Double allocation(JsonNode result) {
+        for (Map.Entry<String, JsonNode> metric : result.path("secondaryMetrics").properties()) {
+            // JMH prefixes profiler metrics with a middle dot ("·gc.alloc.rate.norm")
+            if (metric.getKey().endsWith(ALLOCATION_METRIC)) {
+                return metric.getValue().path("score").asDouble();
+            }
+        }
+        return null;
+    }
+
+    private static double percentChange(double base, double value) {
+        return base == 0 ? 0 : (value - base) * 100.0 / base;
+    }
+
+    private static String format(Double bytes) {
+        return bytes != null ? String.format("%.1f", bytes) : "-";
+    }
+}
@@ -0,0 +1,101 @@
+package com.org.springboot4.benchmarks;
+
+import com.org.springboot4.events.OrderCanceledEvent;
+import com.org.springboot4.events.OrderCreatedEvent;
+import com.org.springboot4.events.UserCreditReservationFailedEvent;
+import com.org.springboot4.events.UserCreditReservedEvent;
+import com.org.springboot4.events.codec.BinaryEventDeserializer;
+import com.org.springboot4.events.codec.BinaryEventSerializer;
+import com.org.springboot4.events.codec.EventWireFormat;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization and deserialization of every saga event in both wire formats, configured exactly like the
+ * services' producers and consumers (JSON with type headers, binary with the JSON fallback).
+ * The encoded size of each event is printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EventCodecBenchmark {
+
+    private static final String TOPIC = "saga.benchmark";
+
+    public enum EventType {
+        ORDER_CREATED, ORDER_CANCELED, CREDIT_RESERVED, CREDIT_RESERVATION_FAILED;
+
+        Object sample() {
+            UUID orderId = UUID.fromString("0190a4c2-7e0b-7c3d-9a51-3f2b6d8e4a10");
+            UUID userId = UUID.fromString("5ce87894-d62d-48ef-95a5-0083275f3361");
+            return switch (this) {
+                case ORDER_CREATED -> new OrderCreatedEvent(orderId, userId, 12_500L);
+                case ORDER_CANCELED -> new OrderCanceledEvent(orderId, userId, 12_500L);
+                case CREDIT_RESERVED -> new UserCreditReservedEvent(orderId, userId, 12_500L);
+                case CREDIT_RESERVATION_FAILED ->
+                        new UserCreditReservationFailedEvent(orderId, userId, 12_500L, "Insufficient balance");
+            };
+        }
+    }
+
+    @Param
+    public EventType eventType;
+
+    @Param
+    public EventWireFormat format;
+
+    private Serializer<Object> serializer;
+    private BinaryEventDeserializer deserializer;
+    private Object event;
+    private byte[] payload;
+    private Headers payloadHeaders;
+
+    // JsonSerializer/JsonDeserializer are deprecated for removal but are what the services' KafkaConfig still uses
+    @SuppressWarnings("removal")
+    @Setup
+    public void setUp() {
+        serializer = format == EventWireFormat.BINARY ? new BinaryEventSerializer() : new JsonSerializer<>();
+        deserializer = new BinaryEventDeserializer();
+        deserializer.configure(Map.of(
+                BinaryEventDeserializer.FALLBACK_DESERIALIZER_CLASS, JsonDeserializer.class,
+                JsonDeserializer.TRUSTED_PACKAGES, "*",
+                // The consumer reads the type header once; keep it so the same record can be decoded repeatedly
+                JsonDeserializer.REMOVE_TYPE_INFO_HEADERS, false), false);
+
+        event = eventType.sample();
+        payloadHeaders = new RecordHeaders();
+        payload = serializer.serialize(TOPIC, payloadHeaders, event);
+        System.out.printf("%n%s as %s: %d bytes%n", eventType, format, payload.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.deserialize(TOPIC, payloadHeaders, payload);
+    }
+}
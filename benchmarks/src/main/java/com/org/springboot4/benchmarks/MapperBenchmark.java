@@ -0,0 +1,86 @@
+package com.org.springboot4.benchmarks;
+
+import com.org.springboot4.events.OrderStatus;
+import com.org.springboot4.orderservice.domain.Order;
+import com.org.springboot4.orderservice.dto.OrderDto;
+import com.org.springboot4.orderservice.mapper.OrderMapper;
+import com.org.springboot4.orderservice.mapper.OrderMapperImpl;
+import com.org.springboot4.userservice.domain.User;
+import com.org.springboot4.userservice.dto.UserDto;
+import com.org.springboot4.userservice.mapper.UserMapper;
+import com.org.springboot4.userservice.mapper.UserMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity/DTO mapping through the MapStruct-generated {@link UserMapper} and {@link OrderMapper}
+ * implementations used by the controllers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MapperBenchmark {
+
+    private final UserMapper userMapper = new UserMapperImpl();
+    private final OrderMapper orderMapper = new OrderMapperImpl();
+
+    private User user;
+    private UserDto userDto;
+    private Order order;
+    private OrderDto orderDto;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 15, 10, 30, 0);
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .username("benchmark-user")
+                .balance(100_000L)
+                .createdAt(createdAt)
+                .build();
+        userDto = userMapper.toDto(user);
+        order = Order.builder()
+                .id(UUID.randomUUID())
+                .userId(user.getId())
+                .amount(12_500L)
+                .status(OrderStatus.PENDING)
+                .createdAt(createdAt)
+                .build();
+        orderDto = orderMapper.toDto(order);
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public User userToEntity() {
+        return userMapper.toEntity(userDto);
+    }
+
+    @Benchmark
+    public OrderDto orderToDto() {
+        return orderMapper.toDto(order);
+    }
+
+    @Benchmark
+    public Order orderToEntity() {
+        return orderMapper.toEntity(orderDto);
+    }
+}
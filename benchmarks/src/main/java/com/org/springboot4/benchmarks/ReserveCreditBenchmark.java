@@ -0,0 +1,106 @@
+package com.org.springboot4.benchmarks;
+
+import com.org.springboot4.userservice.domain.CreditReservation;
+import com.org.springboot4.userservice.domain.User;
+import com.org.springboot4.userservice.dto.CreditReservationDto;
+import com.org.springboot4.userservice.mapper.CreditReservationMapperImpl;
+import com.org.springboot4.userservice.mapper.UserMapperImpl;
+import com.org.springboot4.userservice.repository.CreditReservationRepository;
+import com.org.springboot4.userservice.repository.UserRepository;
+import com.org.springboot4.userservice.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link UserService#reserveCredit} decision (lock, idempotency lookup, balance check, debit, record) against
+ * in-memory repositories, isolating the service logic from JPA and the database. Order ids are generated up front
+ * (UUID generation would cost more than the decision itself); the stub never finds a previous reservation, so the
+ * idempotency lookup misses, as it does for new orders.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ReserveCreditBenchmark {
+
+    private static final long AMOUNT = 100L;
+    private static final int ORDER_IDS = 1 << 12;
+
+    private UserService userService;
+    private UUID solventUserId;
+    private UUID brokeUserId;
+    private final UUID[] orderIds = new UUID[ORDER_IDS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        // Large enough that the solvent user never runs out of balance during a run
+        User solvent = User.builder().id(UUID.randomUUID()).username("solvent").balance(Long.MAX_VALUE / 2).build();
+        User broke = User.builder().id(UUID.randomUUID()).username("broke").balance(0L).build();
+        solventUserId = solvent.getId();
+        brokeUserId = broke.getId();
+        for (int i = 0; i < ORDER_IDS; i++) {
+            orderIds[i] = UUID.randomUUID();
+        }
+        userService = new UserService(stubRepository(Map.of(solventUserId, solvent, brokeUserId, broke)),
+                new UserMapperImpl(), stubReservationRepository(), new CreditReservationMapperImpl());
+    }
+
+    @Benchmark
+    public CreditReservationDto reserveSufficientBalance() {
+        return userService.reserveCredit(nextOrderId(), solventUserId, AMOUNT);
+    }
+
+    @Benchmark
+    public CreditReservationDto reserveInsufficientBalance() {
+        return userService.reserveCredit(nextOrderId(), brokeUserId, AMOUNT);
+    }
+
+    private UUID nextOrderId() {
+        return orderIds[next++ & (ORDER_IDS - 1)];
+    }
+
+    // Only findByIdForUpdate and save are used on this path
+    private static UserRepository stubRepository(Map<UUID, User> users) {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByIdForUpdate" -> Optional.ofNullable(users.get((UUID) args[0]));
+                    case "save" -> args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubUserRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    // Reservations are never read back within a run, so nothing is retained
+    private static CreditReservationRepository stubReservationRepository() {
+        return (CreditReservationRepository) Proxy.newProxyInstance(CreditReservationRepository.class.getClassLoader(),
+                new Class<?>[]{CreditReservationRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.<CreditReservation>empty();
+                    case "save" -> args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubCreditReservationRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,104 @@
+package com.org.springboot4.benchmarks;
+
+import com.org.springboot4.infra.id.UuidV7;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Inserts the same number of rows into two scratch tables keyed by random (v4) and time-ordered (v7) UUIDs and
+ * reports insert throughput and the resulting primary key index size. Needs a PostgreSQL database, so it runs
+ * outside JMH.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar com.org.springboot4.benchmarks.UuidKeyInsertComparison
+ * jdbcUrl user password [rows] [batchSize]}. The tables {@code uuid_bench_v4} / {@code uuid_bench_v7} are
+ * recreated and dropped again.
+ */
+public final class UuidKeyInsertComparison {
+
+    private static final int DEFAULT_ROWS = 1_000_000;
+    private static final int DEFAULT_BATCH_SIZE = 1_000;
+
+    private UuidKeyInsertComparison() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        if (args.length < 3) {
+            System.err.println("usage: UuidKeyInsertComparison <jdbcUrl> <user> <password> [rows] [batchSize]");
+            System.exit(2);
+        }
+        int rows = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_ROWS;
+        int batchSize = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_BATCH_SIZE;
+        Properties properties = new Properties();
+        properties.setProperty("user", args[1]);
+        properties.setProperty("password", args[2]);
+        properties.setProperty("reWriteBatchedInserts", "true");
+
+        try (Connection connection = DriverManager.getConnection(args[0], properties)) {
+            // Untimed warm-up of the JIT and the driver
+            run(connection, "v4", UUID::randomUUID, Math.min(rows, 50_000), batchSize);
+            run(connection, "v7", UuidV7::next, Math.min(rows, 50_000), batchSize);
+
+            System.out.printf("%-6s %12s %14s %14s %12s%n", "keys", "rows", "rows/s", "index MB", "index B/row");
+            print(run(connection, "v4", UUID::randomUUID, rows, batchSize));
+            print(run(connection, "v7", UuidV7::next, rows, batchSize));
+        }
+    }
+
+    private static Result run(Connection connection, String keys, Supplier<UUID> ids, int rows, int batchSize)
+            throws SQLException {
+        String table = "uuid_bench_" + keys;
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table
+                    + " (id UUID PRIMARY KEY, amount BIGINT NOT NULL, created_at TIMESTAMP NOT NULL)");
+        }
+
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + table + " (id, amount, created_at) VALUES (?, ?, ?)")) {
+            for (int i = 1; i <= rows; i++) {
+                insert.setObject(1, ids.get());
+                insert.setLong(2, i);
+                insert.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+                insert.addBatch();
+                if (i % batchSize == 0 || i == rows) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        connection.setAutoCommit(true);
+
+        long indexBytes;
+        try (Statement statement = connection.createStatement();
+             ResultSet size = statement.executeQuery("SELECT pg_relation_size('" + table + "_pkey')")) {
+            size.next();
+            indexBytes = size.getLong(1);
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE " + table);
+        }
+        return new Result(keys, rows, rows * 1e9 / elapsedNanos, indexBytes);
+    }
+
+    private static void print(Result result) {
+        System.out.printf("%-6s %12d %14.0f %14.1f %12.1f%n",
+                result.keys(), result.rows(), result.rowsPerSecond(), result.indexBytes() / (1024.0 * 1024.0),
+                (double) result.indexBytes() / result.rows());
+    }
+
+    private record Result(String keys, int rows, double rowsPerSecond, long indexBytes) {
+    }
+}
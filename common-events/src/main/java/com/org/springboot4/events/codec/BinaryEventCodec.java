@@ -0,0 +1,218 @@
+package com.org.springboot4.events.codec;
+
+import com.org.springboot4.events.OrderCanceledEvent;
+import com.org.springboot4.events.OrderCreatedEvent;
+import com.org.springboot4.events.UserCreditReservationFailedEvent;
+import com.org.springboot4.events.UserCreditReservedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Schema-versioned binary encoding for the saga event records.
+ * <p>
+ * Layout (version 1):
+ * <pre>
+ * magic(1) version(1) type(1) presence(1) [orderId(16)] [userId(16)] [amount(zigzag varint)] [reason(varint length + UTF-8)]
+ * </pre>
+ * The presence byte has one bit per field so null components survive a round trip without extra markers.
+ * The magic byte can never start a JSON document, which lets consumers tell the two formats apart.
+ * Encoding sizes the output first and writes into a single exact-length array; decoding reads the
+ * array in place without intermediate buffers.
+ */
+public final class BinaryEventCodec {
+
+    public static final byte MAGIC = (byte) 0xCE;
+    public static final byte VERSION = 1;
+
+    static final byte TYPE_ORDER_CREATED = 1;
+    static final byte TYPE_ORDER_CANCELED = 2;
+    static final byte TYPE_CREDIT_RESERVED = 3;
+    static final byte TYPE_CREDIT_RESERVATION_FAILED = 4;
+
+    private static final int HEADER_SIZE = 4;
+    private static final int UUID_SIZE = 16;
+
+    private static final int HAS_ORDER_ID = 1;
+    private static final int HAS_USER_ID = 1 << 1;
+    private static final int HAS_AMOUNT = 1 << 2;
+    private static final int HAS_REASON = 1 << 3;
+
+    private BinaryEventCodec() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(Object event) {
+        return switch (event) {
+            case OrderCreatedEvent e -> encode(TYPE_ORDER_CREATED, e.orderId(), e.userId(), e.amount(), null);
+            case OrderCanceledEvent e -> encode(TYPE_ORDER_CANCELED, e.orderId(), e.userId(), e.amount(), null);
+            case UserCreditReservedEvent e -> encode(TYPE_CREDIT_RESERVED, e.orderId(), e.userId(), e.amount(), null);
+            case UserCreditReservationFailedEvent e ->
+                    encode(TYPE_CREDIT_RESERVATION_FAILED, e.orderId(), e.userId(), e.amount(), e.reason());
+            default -> throw new SerializationException(
+                    "Unsupported event type for binary encoding: " + event.getClass().getName());
+        };
+    }
+
+    public static Object decode(byte[] data) {
+        if (!isBinary(data) || data.length < HEADER_SIZE) {
+            throw new SerializationException("Not a binary-encoded event");
+        }
+        if (data[1] != VERSION) {
+            throw new SerializationException("Unsupported binary event version: " + data[1]);
+        }
+        byte type = data[2];
+        int presence = data[3];
+        Reader reader = new Reader(data, HEADER_SIZE);
+        UUID orderId = (presence & HAS_ORDER_ID) != 0 ? reader.readUuid() : null;
+        UUID userId = (presence & HAS_USER_ID) != 0 ? reader.readUuid() : null;
+        Long amount = (presence & HAS_AMOUNT) != 0 ? reader.readZigZagVarLong() : null;
+        String reason = (presence & HAS_REASON) != 0 ? reader.readString() : null;
+
+        return switch (type) {
+            case TYPE_ORDER_CREATED -> new OrderCreatedEvent(orderId, userId, amount);
+            case TYPE_ORDER_CANCELED -> new OrderCanceledEvent(orderId, userId, amount);
+            case TYPE_CREDIT_RESERVED -> new UserCreditReservedEvent(orderId, userId, amount);
+            case TYPE_CREDIT_RESERVATION_FAILED -> new UserCreditReservationFailedEvent(orderId, userId, amount, reason);
+            default -> throw new SerializationException("Unknown binary event type: " + type);
+        };
+    }
+
+    private static byte[] encode(byte type, UUID orderId, UUID userId, Long amount, String reason) {
+        byte[] reasonBytes = reason != null ? reason.getBytes(StandardCharsets.UTF_8) : null;
+        int presence = 0;
+        int size = HEADER_SIZE;
+        if (orderId != null) {
+            presence |= HAS_ORDER_ID;
+            size += UUID_SIZE;
+        }
+        if (userId != null) {
+            presence |= HAS_USER_ID;
+            size += UUID_SIZE;
+        }
+        long zigZagAmount = 0;
+        if (amount != null) {
+            presence |= HAS_AMOUNT;
+            zigZagAmount = (amount << 1) ^ (amount >> 63);
+            size += varLongSize(zigZagAmount);
+        }
+        if (reasonBytes != null) {
+            presence |= HAS_REASON;
+            size += varLongSize(reasonBytes.length) + reasonBytes.length;
+        }
+
+        byte[] out = new byte[size];
+        out[0] = MAGIC;
+        out[1] = VERSION;
+        out[2] = type;
+        out[3] = (byte) presence;
+        int pos = HEADER_SIZE;
+        if (orderId != null) {
+            pos = writeUuid(out, pos, orderId);
+        }
+        if (userId != null) {
+            pos = writeUuid(out, pos, userId);
+        }
+        if (amount != null) {
+            pos = writeVarLong(out, pos, zigZagAmount);
+        }
+        if (reasonBytes != null) {
+            pos = writeVarLong(out, pos, reasonBytes.length);
+            System.arraycopy(reasonBytes, 0, out, pos, reasonBytes.length);
+        }
+        return out;
+    }
+
+    private static int writeUuid(byte[] out, int pos, UUID uuid) {
+        pos = writeLong(out, pos, uuid.getMostSignificantBits());
+        return writeLong(out, pos, uuid.getLeastSignificantBits());
+    }
+
+    private static int writeLong(byte[] out, int pos, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out[pos++] = (byte) (value >>> shift);
+        }
+        return pos;
+    }
+
+    private static int writeVarLong(byte[] out, int pos, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[pos++] = (byte) value;
+        return pos;
+    }
+
+    private static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            size++;
+            value >>>= 7;
+        }
+        return size;
+    }
+
+    // Cursor over the input array; bounds are checked once per field instead of per byte
+    private static final class Reader {
+        private final byte[] data;
+        private int pos;
+
+        Reader(byte[] data, int pos) {
+            this.data = data;
+            this.pos = pos;
+        }
+
+        UUID readUuid() {
+            require(UUID_SIZE);
+            return new UUID(readLong(), readLong());
+        }
+
+        long readZigZagVarLong() {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        String readString() {
+            // Checked before the cast: a corrupt length may be negative or exceed the payload
+            long length = readVarLong();
+            if (length < 0 || length > data.length - pos) {
+                throw new SerializationException("Invalid binary event string length: " + length);
+            }
+            String value = new String(data, pos, (int) length, StandardCharsets.UTF_8);
+            pos += (int) length;
+            return value;
+        }
+
+        private long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (data[pos++] & 0xFF);
+            }
+            return value;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                require(1);
+                byte b = data[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Malformed varint in binary event");
+        }
+
+        private void require(int bytes) {
+            if (bytes > data.length - pos) {
+                throw new SerializationException("Truncated binary event");
+            }
+        }
+    }
+}
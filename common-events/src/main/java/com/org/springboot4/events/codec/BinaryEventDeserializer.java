@@ -0,0 +1,79 @@
+package com.org.springboot4.events.codec;
+
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.utils.Utils;
+
+import java.util.Map;
+
+/**
+ * Kafka value deserializer for saga events that reads the {@link BinaryEventCodec} format and hands
+ * every other payload (e.g. JSON from producers not yet migrated) to a fallback deserializer.
+ * <p>
+ * The fallback is configured with {@link #FALLBACK_DESERIALIZER_CLASS} and receives the same
+ * configuration map, so it can be used as a drop-in VALUE_DESERIALIZER_CLASS_CONFIG.
+ */
+public class BinaryEventDeserializer implements Deserializer<Object> {
+
+    public static final String FALLBACK_DESERIALIZER_CLASS = "binary.event.fallback.deserializer";
+
+    private Deserializer<?> fallback;
+
+    public BinaryEventDeserializer() {
+    }
+
+    public BinaryEventDeserializer(Deserializer<?> fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        if (fallback == null) {
+            Object fallbackClass = configs.get(FALLBACK_DESERIALIZER_CLASS);
+            if (fallbackClass != null) {
+                fallback = newInstance(fallbackClass);
+            }
+        }
+        if (fallback != null) {
+            fallback.configure(configs, isKey);
+        }
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (BinaryEventCodec.isBinary(data)) {
+            return BinaryEventCodec.decode(data);
+        }
+        if (fallback == null) {
+            throw new KafkaException("Received non-binary event on topic " + topic + " and no fallback deserializer is configured");
+        }
+        return headers != null ? fallback.deserialize(topic, headers, data) : fallback.deserialize(topic, data);
+    }
+
+    @Override
+    public void close() {
+        if (fallback != null) {
+            fallback.close();
+        }
+    }
+
+    private static Deserializer<?> newInstance(Object fallbackClass) {
+        if (fallbackClass instanceof Class<?> type) {
+            return Utils.newInstance(type, Deserializer.class);
+        }
+        try {
+            return Utils.newInstance(fallbackClass.toString(), Deserializer.class);
+        } catch (ClassNotFoundException e) {
+            throw new KafkaException("Fallback deserializer class not found: " + fallbackClass, e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.org.springboot4.events.codec;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka value serializer writing saga events in the {@link BinaryEventCodec} format.
+ */
+public class BinaryEventSerializer implements Serializer<Object> {
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return data == null ? null : BinaryEventCodec.encode(data);
+    }
+}
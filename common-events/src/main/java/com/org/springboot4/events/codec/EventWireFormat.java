@@ -0,0 +1,10 @@
+package com.org.springboot4.events.codec;
+
+/**
+ * Wire format used when publishing saga events.
+ * Consumers always accept both, so producers can be switched one service at a time.
+ */
+public enum EventWireFormat {
+    JSON,
+    BINARY
+}
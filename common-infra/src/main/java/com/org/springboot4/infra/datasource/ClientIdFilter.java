@@ -0,0 +1,40 @@
+package com.org.springboot4.infra.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the calling client's {@value #HEADER} to the request thread for read-your-writes routing.
+ * Requests without the header are routed on the transaction's read-only flag and replica lag alone.
+ */
+public class ClientIdFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Client-Id";
+
+    private static final ThreadLocal<String> CLIENT_ID = new ThreadLocal<>();
+
+    static String currentClientId() {
+        return CLIENT_ID.get();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String clientId = request.getHeader(HEADER);
+        if (clientId == null || clientId.isBlank()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        CLIENT_ID.set(clientId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            CLIENT_ID.remove();
+        }
+    }
+}
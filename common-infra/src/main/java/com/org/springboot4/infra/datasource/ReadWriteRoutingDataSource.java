@@ -0,0 +1,153 @@
+package com.org.springboot4.infra.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary pool.
+ * <p>
+ * The physical connection is fetched lazily, at the first statement, because the transaction manager asks for
+ * a connection before it marks the transaction read-only. A read-only transaction still uses the primary when
+ * no replica is configured, the {@link ReplicaLagMonitor} reports it as lagging or unreachable, or the calling
+ * client ({@link ClientIdFilter}) wrote within the read-your-writes window. Any read-write transaction of a
+ * client opens that window. If the replica pool cannot hand out a connection, the replica is marked unavailable
+ * and the read is served by the primary. Routing decisions are counted as {@code db.routing.connections} by
+ * {@code target} and {@code reason}.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements SmartLifecycle, DisposableBean {
+
+    private enum Route {
+        READ_WRITE(Target.PRIMARY),
+        NO_REPLICA(Target.PRIMARY),
+        REPLICA_UNAVAILABLE(Target.PRIMARY),
+        READ_YOUR_WRITES(Target.PRIMARY),
+        READ_ONLY(Target.REPLICA);
+
+        private final Target target;
+
+        Route(Target target) {
+            this.target = target;
+        }
+    }
+
+    private enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWrites;
+    private final Map<Route, Counter> routed = new EnumMap<>(Route.class);
+    private volatile boolean running;
+
+    /**
+     * @param replica    replica pool, or {@code null} to send everything to the primary
+     * @param lagMonitor monitor for the replica pool, {@code null} without a replica
+     */
+    public ReadWriteRoutingDataSource(HikariDataSource primary, HikariDataSource replica, ReplicaLagMonitor lagMonitor,
+                                      ReadYourWritesTracker readYourWrites, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+        for (Route route : Route.values()) {
+            routed.put(route, Counter.builder("db.routing.connections")
+                    .description("Connections handed out by the read/write routing data source")
+                    .tag("target", route.target.name().toLowerCase())
+                    .tag("reason", route.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+
+        setTargetDataSource(new Router());
+        // PostgreSQL and Hikari defaults; set up front so startup does not need a connection to find them out
+        setDefaultAutoCommit(true);
+        setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        afterPropertiesSet();
+    }
+
+    @Override
+    public void start() {
+        if (lagMonitor != null) {
+            lagMonitor.start();
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (lagMonitor != null) {
+            lagMonitor.stop();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void destroy() {
+        if (replica != null) {
+            replica.close();
+        }
+        primary.close();
+    }
+
+    private Route route() {
+        String clientId = ClientIdFilter.currentClientId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (clientId != null) {
+                readYourWrites.recordWrite(clientId);
+            }
+            return Route.READ_WRITE;
+        }
+        if (replica == null) {
+            return Route.NO_REPLICA;
+        }
+        if (!lagMonitor.isAvailable()) {
+            return Route.REPLICA_UNAVAILABLE;
+        }
+        if (clientId != null && readYourWrites.wroteRecently(clientId)) {
+            return Route.READ_YOUR_WRITES;
+        }
+        return Route.READ_ONLY;
+    }
+
+    private class Router extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Route route = route();
+            if (route.target == Target.REPLICA) {
+                try {
+                    Connection connection = replica.getConnection();
+                    routed.get(route).increment();
+                    return connection;
+                } catch (SQLException e) {
+                    lagMonitor.markUnavailable(e);
+                    route = Route.REPLICA_UNAVAILABLE;
+                }
+            }
+            routed.get(route).increment();
+            return primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLException("Routing data source uses the pools' credentials");
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.org.springboot4.infra.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which clients wrote recently so their reads can be kept on the primary until the replica has had
+ * time to catch up. The window should exceed the replica lag that is still tolerated for reads.
+ */
+public class ReadYourWritesTracker {
+
+    // Expired entries are swept once the map grows past this; they are also dropped when looked up
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public void recordWrite(String clientId) {
+        long now = System.nanoTime();
+        lastWriteNanos.put(clientId, now);
+        if (lastWriteNanos.size() > SWEEP_THRESHOLD) {
+            lastWriteNanos.values().removeIf(writtenAt -> now - writtenAt > windowNanos);
+        }
+    }
+
+    public boolean wroteRecently(String clientId) {
+        Long writtenAt = lastWriteNanos.get(clientId);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - writtenAt > windowNanos) {
+            lastWriteNanos.remove(clientId, writtenAt);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,122 @@
+package com.org.springboot4.infra.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically measures how far the replica is behind and decides whether it may serve reads.
+ * <p>
+ * The lag is the age of the last replayed transaction. The replica counts as current only while its WAL
+ * receiver is streaming and has replayed everything it received, so an idle primary does not make it look
+ * stale. A disconnected receiver also leaves received = replayed, so then the replay age applies, and a
+ * replica that has not replayed any transaction yet (unknown lag) is unavailable. {@code pg_stat_wal_receiver}
+ * shows the status only to roles with {@code pg_read_all_stats}; without it the replay age is always used.
+ * A server that is not in recovery (a plain database configured as the "replica") reports zero.
+ * A failed check, or a failed connection attempt reported through {@link #markUnavailable}, marks the replica
+ * unavailable until the next successful check.
+ * Exported as {@code db.replica.lag} (seconds) and {@code db.replica.available}.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // NULL when the lag is unknown (nothing replayed yet)
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN (SELECT status FROM pg_stat_wal_receiver) = 'streaming'
+                     AND pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())
+            END""";
+
+    private final DataSource replica;
+    private final Duration maxLag;
+    private final Duration interval;
+    private final String poolName;
+
+    private ScheduledExecutorService scheduler;
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean available;
+
+    public ReplicaLagMonitor(DataSource replica, String poolName, Duration maxLag, Duration interval,
+                             MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.poolName = poolName;
+        this.maxLag = maxLag;
+        this.interval = interval;
+        Gauge.builder("db.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Replay lag of the read replica (NaN while unknown)")
+                .baseUnit("seconds")
+                .tag("pool", poolName)
+                .register(meterRegistry);
+        Gauge.builder("db.replica.available", this, monitor -> monitor.available ? 1 : 0)
+                .description("1 when read-only transactions may use the replica")
+                .tag("pool", poolName)
+                .register(meterRegistry);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public void markUnavailable(Exception cause) {
+        if (available) {
+            log.warn("Replica {} unreachable, reads go to the primary: {}", poolName, cause.toString());
+        }
+        lagSeconds = Double.NaN;
+        available = false;
+    }
+
+    /**
+     * Runs the first check synchronously, then keeps checking in the background. Until the first successful
+     * check all reads go to the primary.
+     */
+    public void start() {
+        refresh();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, poolName + "-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    void refresh() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(LAG_QUERY)) {
+            result.next();
+            double lag = result.getDouble(1);
+            if (result.wasNull()) {
+                markUnavailable(new IllegalStateException("replay lag unknown, no transaction replayed yet"));
+                return;
+            }
+            boolean wasAvailable = available;
+            lagSeconds = lag;
+            available = lag * 1000 <= maxLag.toMillis();
+            if (available && !wasAvailable) {
+                log.info("Replica {} serves reads (lag {}s, max {})", poolName, lag, maxLag);
+            } else if (!available && wasAvailable) {
+                log.warn("Replica {} is lagging, reads go to the primary (lag {}s, max {})", poolName, lag, maxLag);
+            }
+        } catch (Exception e) {
+            markUnavailable(e);
+        }
+    }
+}
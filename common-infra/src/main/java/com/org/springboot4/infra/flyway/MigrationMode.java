@@ -0,0 +1,18 @@
+package com.org.springboot4.infra.flyway;
+
+/**
+ * How a service instance treats Flyway migrations at startup ({@code app.flyway.mode}).
+ */
+public enum MigrationMode {
+
+    /**
+     * Apply pending migrations (takes the schema history lock). Use on one designated instance or in the
+     * one-shot migration runner.
+     */
+    MIGRATE,
+
+    /**
+     * Never migrate; wait until the schema history reaches the newest migration shipped with this build.
+     */
+    WAIT
+}
@@ -0,0 +1,144 @@
+package com.org.springboot4.infra.flyway;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.Location;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.configuration.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Startup check for instances that leave migrating to someone else ({@link MigrationMode#WAIT}).
+ * <p>
+ * The expected version is the highest versioned migration file name in the configured locations; only the
+ * names are listed, nothing is read or checksummed. The applied version is a plain query against the
+ * schema history table, without Flyway's lock. Startup blocks until the applied version has caught up and
+ * fails with {@link IllegalStateException} after the timeout, so the orchestrator restarts the instance.
+ */
+@Slf4j
+public class SchemaVersionWaiter {
+
+    private final DataSource dataSource;
+    private final Configuration configuration;
+    private final Duration timeout;
+    private final Duration pollInterval;
+
+    public SchemaVersionWaiter(DataSource dataSource, Configuration configuration, Duration timeout,
+                               Duration pollInterval) {
+        this.dataSource = dataSource;
+        this.configuration = configuration;
+        this.timeout = timeout;
+        this.pollInterval = pollInterval;
+    }
+
+    public void await() {
+        MigrationVersion expected = expectedVersion();
+        if (expected == MigrationVersion.EMPTY) {
+            log.info("No versioned migrations in {}, nothing to wait for", (Object) configuration.getLocations());
+            return;
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        MigrationVersion applied = appliedVersion();
+        while (applied.compareTo(expected) < 0) {
+            if (System.nanoTime() >= deadline) {
+                throw new IllegalStateException("Schema version " + applied + " did not reach " + expected
+                        + " within " + timeout + "; is the migration runner failing?");
+            }
+            log.info("Waiting for schema version {} (currently {})", expected, applied);
+            sleep();
+            applied = appliedVersion();
+        }
+        // Newer than expected is fine: a newer build migrated first during a rolling deploy
+        log.info("Schema is at version {} (expected {})", applied, expected);
+    }
+
+    // Flyway's "classpath:" searches every jar, which is Spring's "classpath*:"; anything else is a file location
+    private static String resourcePrefix(Location location) {
+        return "classpath:".equals(location.getPrefix()) ? "classpath*:" : "file:";
+    }
+
+    MigrationVersion expectedVersion() {
+        String prefix = configuration.getSqlMigrationPrefix();
+        String separator = configuration.getSqlMigrationSeparator();
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        MigrationVersion highest = MigrationVersion.EMPTY;
+        for (Location location : configuration.getLocations()) {
+            String pattern = resourcePrefix(location) + location.getRootPath() + "/**/" + prefix + "*" + separator + "*";
+            try {
+                for (Resource resource : resolver.getResources(pattern)) {
+                    String name = resource.getFilename();
+                    if (name == null || !hasMigrationSuffix(name)) {
+                        continue;
+                    }
+                    MigrationVersion version = MigrationVersion.fromVersion(
+                            name.substring(prefix.length(), name.indexOf(separator)));
+                    if (version.compareTo(highest) > 0) {
+                        highest = version;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot list migrations in " + location, e);
+            }
+        }
+        return highest;
+    }
+
+    private boolean hasMigrationSuffix(String name) {
+        for (String suffix : configuration.getSqlMigrationSuffixes()) {
+            if (name.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Highest successfully applied version, EMPTY while the history table does not exist yet
+    private MigrationVersion appliedVersion() {
+        String table = configuration.getDefaultSchema() != null
+                ? configuration.getDefaultSchema() + "." + configuration.getTable()
+                : configuration.getTable();
+        MigrationVersion highest = MigrationVersion.EMPTY;
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            if (!historyTableExists(statement, table)) {
+                return highest;
+            }
+            try (ResultSet rows = statement.executeQuery(
+                    "SELECT version FROM " + table + " WHERE success AND version IS NOT NULL")) {
+                while (rows.next()) {
+                    MigrationVersion version = MigrationVersion.fromVersion(rows.getString(1));
+                    if (version.compareTo(highest) > 0) {
+                        highest = version;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("Reading schema history failed, retrying: {}", e.getMessage());
+        }
+        return highest;
+    }
+
+    private static boolean historyTableExists(Statement statement, String table) throws SQLException {
+        try (ResultSet result = statement.executeQuery("SELECT to_regclass('" + table + "') IS NOT NULL")) {
+            return result.next() && result.getBoolean(1);
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(pollInterval.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for schema migration", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.org.springboot4.infra.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDs (RFC 9562 version 7): a 48-bit Unix millisecond timestamp, a 12-bit sequence and 62 random
+ * bits. Keys generated later sort after earlier ones, so B-tree primary key inserts append to the rightmost
+ * index page instead of splitting random pages.
+ * <p>
+ * The sequence restarts at a random value every millisecond and is incremented for further keys within it
+ * (RFC 9562 method 1), making keys from one process strictly increasing. When it overflows, the timestamp is
+ * advanced by one millisecond rather than going backwards; the same applies if the system clock steps back.
+ * Random bits come from {@link ThreadLocalRandom}: the keys are unique, not secret.
+ */
+public final class UuidV7 {
+
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC_9562 = 0x8000_0000_0000_0000L;
+    private static final int SEQUENCE_BITS = 12;
+    // Leaves half the sequence space for keys within the same millisecond
+    private static final int SEQUENCE_SEED_BOUND = 1 << (SEQUENCE_BITS - 1);
+
+    // Last issued (timestamp << 12 | sequence)
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << SEQUENCE_BITS;
+        long previous;
+        long current;
+        do {
+            previous = LAST.get();
+            current = now > previous
+                    ? now | ThreadLocalRandom.current().nextInt(SEQUENCE_SEED_BOUND)
+                    : previous + 1;
+        } while (!LAST.compareAndSet(previous, current));
+
+        long timestamp = current >>> SEQUENCE_BITS;
+        long sequence = current & ((1 << SEQUENCE_BITS) - 1);
+        long mostSignificant = timestamp << 16 | VERSION_7 | sequence;
+        long leastSignificant = ThreadLocalRandom.current().nextLong() >>> 2 | VARIANT_RFC_9562;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    // Creation time in Unix milliseconds embedded in a version 7 UUID
+    public static long timestampMillis(UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("Not a version 7 UUID: " + uuid);
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
@@ -0,0 +1,18 @@
+package com.org.springboot4.infra.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.util.UUID;
+
+/**
+ * Hibernate id algorithm for {@code @UuidGenerator(algorithm = UuidV7Generator.class)}.
+ * Ids are assigned in the application before the insert, so inserts stay eligible for JDBC batching.
+ */
+public class UuidV7Generator implements UuidValueGenerator {
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return UuidV7.next();
+    }
+}
@@ -0,0 +1,132 @@
+package com.org.springboot4.infra.kafka;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically compares a consumer group's committed offsets with the partitions' log-end offsets and
+ * exports the difference as gauges:
+ * <ul>
+ *   <li>{@code kafka.consumer.group.lag} per {@code group}, {@code topic}, {@code partition}</li>
+ *   <li>{@code kafka.consumer.group.total.lag} per {@code group}</li>
+ * </ul>
+ * This is the broker-side view (what an external lag exporter would report), independent of whether
+ * this instance currently owns the partitions.
+ */
+@Slf4j
+public class ConsumerLagMonitor implements SmartLifecycle {
+
+    private final String bootstrapServers;
+    private final String groupId;
+    private final Duration interval;
+    private final MeterRegistry meterRegistry;
+    private final Map<TopicPartition, AtomicLong> partitionLag = new ConcurrentHashMap<>();
+    private final AtomicLong totalLag = new AtomicLong();
+
+    private Admin admin;
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public ConsumerLagMonitor(String bootstrapServers, String groupId, Duration interval, MeterRegistry meterRegistry) {
+        this.bootstrapServers = bootstrapServers;
+        this.groupId = groupId;
+        this.interval = interval;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("kafka.consumer.group.total.lag", totalLag, AtomicLong::get)
+                .description("Sum of committed-offset lag across all partitions of the group")
+                .tag("group", groupId)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        admin = Admin.create(Map.of(
+                AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                AdminClientConfig.CLIENT_ID_CONFIG, groupId + "-lag-monitor"));
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, groupId + "-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (admin != null) {
+            admin.close(Duration.ofSeconds(5));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    void refresh() {
+        try {
+            Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(groupId)
+                    .partitionsToOffsetAndMetadata()
+                    .get(interval.toMillis(), TimeUnit.MILLISECONDS);
+            if (committed.isEmpty()) {
+                return;
+            }
+            Map<TopicPartition, OffsetSpec> latestSpec = new HashMap<>();
+            committed.keySet().forEach(partition -> latestSpec.put(partition, OffsetSpec.latest()));
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffsets = admin.listOffsets(latestSpec)
+                    .all()
+                    .get(interval.toMillis(), TimeUnit.MILLISECONDS);
+
+            long total = 0;
+            for (Map.Entry<TopicPartition, OffsetAndMetadata> entry : committed.entrySet()) {
+                ListOffsetsResult.ListOffsetsResultInfo end = endOffsets.get(entry.getKey());
+                if (end == null || entry.getValue() == null) {
+                    continue;
+                }
+                long lag = Math.max(0, end.offset() - entry.getValue().offset());
+                partitionGauge(entry.getKey()).set(lag);
+                total += lag;
+            }
+            totalLag.set(total);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Failed to refresh consumer lag for group={}: {}", groupId, e.toString());
+        }
+    }
+
+    private AtomicLong partitionGauge(TopicPartition partition) {
+        return partitionLag.computeIfAbsent(partition, tp -> {
+            AtomicLong lag = new AtomicLong();
+            Gauge.builder("kafka.consumer.group.lag", lag, AtomicLong::get)
+                    .description("Committed-offset lag of the consumer group on one partition")
+                    .tag("group", groupId)
+                    .tag("topic", tp.topic())
+                    .tag("partition", Integer.toString(tp.partition()))
+                    .register(meterRegistry);
+            return lag;
+        });
+    }
+}
@@ -0,0 +1,33 @@
+package com.org.springboot4.infra.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Terminal handler for records that exhausted their retry tiers.
+ * Records are parked (logged and counted as {@code saga.dlt.records}) and stay on the dead-letter topic
+ * until they are re-driven with {@link DeadLetterReplayer}. Records that could not be deserialized never
+ * reach this handler; the container logs them and their original bytes stay on the topic as well.
+ */
+@Slf4j
+public class DeadLetterHandler {
+
+    private final MeterRegistry meterRegistry;
+
+    public DeadLetterHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void handle(ConsumerRecord<?, ?> record) {
+        meterRegistry.counter("saga.dlt.records", "topic", record.topic()).increment();
+        Header exceptionMessage = record.headers().lastHeader(KafkaHeaders.DLT_EXCEPTION_MESSAGE);
+        log.error("Dead-lettered record key={} on {}-{}@{}: {} (cause: {})",
+                record.key(), record.topic(), record.partition(), record.offset(), record.value(),
+                exceptionMessage != null ? new String(exceptionMessage.value(), StandardCharsets.UTF_8) : "unknown");
+    }
+}
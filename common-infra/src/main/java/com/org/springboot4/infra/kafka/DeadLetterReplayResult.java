@@ -0,0 +1,17 @@
+package com.org.springboot4.infra.kafka;
+
+/**
+ * Outcome of one {@link DeadLetterReplayer} batch.
+ *
+ * @param deadLetterTopic topic the records were read from
+ * @param targetTopic     main topic the records were re-published to
+ * @param replayed        records re-published in this batch
+ * @param remaining       records still waiting on the dead-letter topic after this batch
+ */
+public record DeadLetterReplayResult(
+    String deadLetterTopic,
+    String targetTopic,
+    int replayed,
+    long remaining
+) {
+}
@@ -0,0 +1,192 @@
+package com.org.springboot4.infra.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.KafkaException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Re-drives parked records from a dead-letter topic back onto its main topic in bounded batches.
+ * <p>
+ * Records are copied as raw bytes (whatever wire format they were written in) with their key and business
+ * headers; the dead-letter and retry bookkeeping headers are dropped so the record starts over with a full
+ * set of retry tiers. Progress is tracked in a dedicated consumer group ({@code <group>-dlt-replay}), so
+ * every parked record is replayed once and repeated calls continue where the previous batch stopped.
+ * Each call only covers records parked before it started, so records that fail again and land back on the
+ * dead-letter topic during a replay are left for the next call.
+ * Offsets are committed only after the broker acknowledged every re-published record of the batch.
+ */
+@Slf4j
+public class DeadLetterReplayer implements DisposableBean {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+    private static final List<String> DROPPED_HEADER_PREFIXES = List.of("kafka_dlt-", "retry_topic-");
+
+    private final String bootstrapServers;
+    private final String replayGroupId;
+    private final Set<String> deadLetterTopics;
+    private final MeterRegistry meterRegistry;
+    private Producer<byte[], byte[]> producer;
+
+    public DeadLetterReplayer(String bootstrapServers, String groupId, Set<String> deadLetterTopics,
+                              MeterRegistry meterRegistry) {
+        this.bootstrapServers = bootstrapServers;
+        this.replayGroupId = groupId + "-dlt-replay";
+        this.deadLetterTopics = deadLetterTopics;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Set<String> deadLetterTopics() {
+        return deadLetterTopics;
+    }
+
+    public synchronized DeadLetterReplayResult replay(String deadLetterTopic, int maxRecords) {
+        if (!deadLetterTopics.contains(deadLetterTopic)) {
+            throw new IllegalArgumentException("Not a dead-letter topic of this service: " + deadLetterTopic);
+        }
+        if (maxRecords < 1) {
+            throw new IllegalArgumentException("maxRecords must be positive");
+        }
+        String targetTopic = SagaRetryTopics.mainTopic(deadLetterTopic);
+
+        try (KafkaConsumer<byte[], byte[]> consumer = new KafkaConsumer<>(consumerProperties(maxRecords))) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            List<PartitionInfo> partitionInfos = consumer.partitionsFor(deadLetterTopic);
+            if (partitionInfos != null) {
+                partitionInfos.forEach(info -> partitions.add(new TopicPartition(info.topic(), info.partition())));
+            }
+            if (partitions.isEmpty()) {
+                return new DeadLetterReplayResult(deadLetterTopic, targetTopic, 0, 0);
+            }
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            Map<TopicPartition, OffsetAndMetadata> nextOffsets = new HashMap<>();
+            List<Future<RecordMetadata>> sends = new ArrayList<>();
+            while (sends.size() < maxRecords && hasPending(consumer, partitions, endOffsets, nextOffsets)) {
+                ConsumerRecords<byte[], byte[]> records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty()) {
+                    break;
+                }
+                for (ConsumerRecord<byte[], byte[]> record : records) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (sends.size() >= maxRecords || record.offset() >= endOffsets.get(partition)) {
+                        continue;
+                    }
+                    sends.add(producer().send(new ProducerRecord<>(targetTopic, null, record.key(), record.value(),
+                            replayHeaders(record))));
+                    nextOffsets.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                }
+            }
+            awaitAcknowledgements(sends);
+            if (!nextOffsets.isEmpty()) {
+                consumer.commitSync(nextOffsets);
+            }
+
+            long remaining = 0;
+            Map<TopicPartition, Long> currentEndOffsets = consumer.endOffsets(partitions);
+            for (TopicPartition partition : partitions) {
+                long position = nextOffset(consumer, partition, nextOffsets);
+                remaining += Math.max(0, currentEndOffsets.get(partition) - position);
+            }
+
+            meterRegistry.counter("saga.dlt.replayed", "topic", deadLetterTopic).increment(sends.size());
+            log.info("Replayed {} records from {} to {} ({} remaining)", sends.size(), deadLetterTopic, targetTopic, remaining);
+            return new DeadLetterReplayResult(deadLetterTopic, targetTopic, sends.size(), remaining);
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (producer != null) {
+            producer.close(Duration.ofSeconds(5));
+        }
+    }
+
+    private static boolean hasPending(KafkaConsumer<byte[], byte[]> consumer, List<TopicPartition> partitions,
+                                      Map<TopicPartition, Long> endOffsets,
+                                      Map<TopicPartition, OffsetAndMetadata> nextOffsets) {
+        return partitions.stream()
+                .anyMatch(partition -> nextOffset(consumer, partition, nextOffsets) < endOffsets.get(partition));
+    }
+
+    // Next offset to replay: just after the last record sent in this call, otherwise the committed position
+    private static long nextOffset(KafkaConsumer<byte[], byte[]> consumer, TopicPartition partition,
+                                   Map<TopicPartition, OffsetAndMetadata> nextOffsets) {
+        OffsetAndMetadata next = nextOffsets.get(partition);
+        return next != null ? next.offset() : consumer.position(partition);
+    }
+
+    private static void awaitAcknowledgements(List<Future<RecordMetadata>> sends) {
+        try {
+            for (Future<RecordMetadata> send : sends) {
+                send.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while replaying dead-letter records", e);
+        } catch (ExecutionException e) {
+            throw new KafkaException("Failed to re-publish dead-letter record; offsets were not committed", e.getCause());
+        }
+    }
+
+    private static RecordHeaders replayHeaders(ConsumerRecord<byte[], byte[]> record) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (DROPPED_HEADER_PREFIXES.stream().noneMatch(header.key()::startsWith)) {
+                headers.add(header);
+            }
+        }
+        return headers;
+    }
+
+    private Map<String, Object> consumerProperties(int maxRecords) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, replayGroupId);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxRecords);
+        return props;
+    }
+
+    private Producer<byte[], byte[]> producer() {
+        if (producer == null) {
+            Map<String, Object> props = new HashMap<>();
+            props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+            props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+            props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+            props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+            props.put(ProducerConfig.ACKS_CONFIG, "all");
+            producer = new KafkaProducer<>(props);
+        }
+        return producer;
+    }
+}
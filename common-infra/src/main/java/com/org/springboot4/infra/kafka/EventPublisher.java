@@ -0,0 +1,169 @@
+package com.org.springboot4.infra.kafka;
+
+import com.org.springboot4.infra.warmup.WarmupScope;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes saga events through a {@link KafkaTemplate} while tracking every send to completion.
+ * <p>
+ * At most {@code maxInFlight} sends may be unacknowledged at a time; callers block for up to
+ * {@code acquireTimeout} for a free slot, which turns a slow or unavailable broker into backpressure
+ * instead of an unbounded producer buffer. Send latency, failures and the in-flight count are
+ * exported per topic:
+ * <ul>
+ *   <li>{@code saga.events.publish} timer, tags {@code topic} and {@code outcome}</li>
+ *   <li>{@code saga.events.publish.errors} counter, tags {@code topic} and {@code exception}</li>
+ *   <li>{@code saga.events.publish.in.flight} gauge</li>
+ * </ul>
+ * Nothing is sent while the calling thread is in a {@link WarmupScope}.
+ */
+@Slf4j
+public class EventPublisher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final long acquireTimeoutNanos;
+    private final Map<String, TopicMeters> topicMeters = new ConcurrentHashMap<>();
+
+    public EventPublisher(KafkaTemplate<String, Object> kafkaTemplate, MeterRegistry meterRegistry,
+                          int maxInFlight, Duration acquireTimeout) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        Gauge.builder("saga.events.publish.in.flight", this, EventPublisher::inFlightCount)
+                .description("Saga event sends awaiting broker acknowledgement")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends an event keyed by {@code key} (the saga's order id keeps all of its events on one partition).
+     * The returned future completes when the broker acknowledges the record; failures are logged and
+     * counted here, so callers that do not need the result may ignore it.
+     *
+     * @throws KafkaException if no in-flight slot frees up within the acquire timeout
+     */
+    public CompletableFuture<SendResult<String, Object>> publish(String topic, String key, Object event) {
+        return publish(new ProducerRecord<>(topic, key, event));
+    }
+
+    /**
+     * Same as {@link #publish(String, String, Object)}, additionally stamping the saga start instant
+     * ({@link SagaHeaders#SAGA_STARTED_AT}) so the completing service can measure end-to-end latency.
+     * A null {@code sagaStartedAt} publishes without the header.
+     */
+    public CompletableFuture<SendResult<String, Object>> publish(String topic, String key, Object event,
+                                                                 Instant sagaStartedAt) {
+        ProducerRecord<String, Object> record = new ProducerRecord<>(topic, key, event);
+        if (sagaStartedAt != null) {
+            record.headers().add(SagaHeaders.SAGA_STARTED_AT, SagaHeaders.encodeInstant(sagaStartedAt));
+        }
+        return publish(record);
+    }
+
+    private CompletableFuture<SendResult<String, Object>> publish(ProducerRecord<String, Object> record) {
+        if (WarmupScope.isActive()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        String topic = record.topic();
+        String key = record.key();
+        Object event = record.value();
+        acquireSlot(topic);
+        TopicMeters meters = topicMeters.computeIfAbsent(topic, this::createTopicMeters);
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, Object>> future;
+        try {
+            future = kafkaTemplate.send(record);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            meters.recordFailure(System.nanoTime() - start, e);
+            throw e;
+        }
+        return future.whenComplete((result, error) -> {
+            inFlight.release();
+            long elapsed = System.nanoTime() - start;
+            if (error == null) {
+                meters.success.record(elapsed, TimeUnit.NANOSECONDS);
+            } else {
+                meters.recordFailure(elapsed, error);
+                log.error("Failed to publish {} to topic={} key={}", event.getClass().getSimpleName(), topic, key, error);
+            }
+        });
+    }
+
+    public int inFlightCount() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    private void acquireSlot(String topic) {
+        try {
+            if (!inFlight.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                topicMeters.computeIfAbsent(topic, this::createTopicMeters).rejected.increment();
+                throw new KafkaException("Timed out waiting for a free publish slot on topic " + topic
+                        + " (" + maxInFlight + " sends in flight)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while waiting for a free publish slot on topic " + topic, e);
+        }
+    }
+
+    private TopicMeters createTopicMeters(String topic) {
+        return new TopicMeters(topic, meterRegistry);
+    }
+
+    // Meters resolved once per topic so the send path does not rebuild tags
+    private static final class TopicMeters {
+        private final String topic;
+        private final MeterRegistry meterRegistry;
+        private final Timer success;
+        private final Timer failure;
+        private final Counter rejected;
+
+        TopicMeters(String topic, MeterRegistry meterRegistry) {
+            this.topic = topic;
+            this.meterRegistry = meterRegistry;
+            this.success = publishTimer(topic, "success", meterRegistry);
+            this.failure = publishTimer(topic, "failure", meterRegistry);
+            this.rejected = Counter.builder("saga.events.publish.rejected")
+                    .description("Sends rejected because the in-flight limit stayed exhausted")
+                    .tag("topic", topic)
+                    .register(meterRegistry);
+        }
+
+        void recordFailure(long elapsedNanos, Throwable error) {
+            failure.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            meterRegistry.counter("saga.events.publish.errors",
+                    "topic", topic, "exception", cause.getClass().getSimpleName()).increment();
+        }
+
+        private static Timer publishTimer(String topic, String outcome, MeterRegistry meterRegistry) {
+            return Timer.builder("saga.events.publish")
+                    .description("Time from send to broker acknowledgement")
+                    .tag("topic", topic)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.org.springboot4.infra.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.KafkaBackoffException;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every listener invocation (including the listener's own transaction commit) and exports it as
+ * {@code saga.listener.processing} with {@code topic} and {@code outcome} tags.
+ * Consumer threads process one record at a time, so the start time is kept in a thread local.
+ * Retry-topic records that are not due yet are deferred without being processed and are not recorded.
+ */
+public class ListenerTimingInterceptor implements RecordInterceptor<String, Object> {
+
+    private final MeterRegistry meterRegistry;
+    private final ThreadLocal<Long> startNanos = new ThreadLocal<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public ListenerTimingInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ConsumerRecord<String, Object> intercept(ConsumerRecord<String, Object> record,
+                                                    Consumer<String, Object> consumer) {
+        startNanos.set(System.nanoTime());
+        return record;
+    }
+
+    @Override
+    public void success(ConsumerRecord<String, Object> record, Consumer<String, Object> consumer) {
+        record(record.topic(), "success");
+    }
+
+    @Override
+    public void failure(ConsumerRecord<String, Object> record, Exception exception, Consumer<String, Object> consumer) {
+        if (isBackoff(exception)) {
+            startNanos.remove();
+            return;
+        }
+        record(record.topic(), "failure");
+    }
+
+    private static boolean isBackoff(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof KafkaBackoffException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void record(String topic, String outcome) {
+        Long start = startNanos.get();
+        if (start == null) {
+            return;
+        }
+        startNanos.remove();
+        timers.computeIfAbsent(topic + '|' + outcome, key -> Timer.builder("saga.listener.processing")
+                        .description("Listener processing time per record")
+                        .tag("topic", topic)
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
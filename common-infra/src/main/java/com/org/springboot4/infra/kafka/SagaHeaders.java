@@ -0,0 +1,34 @@
+package com.org.springboot4.infra.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Kafka headers carried by saga events.
+ * {@link #SAGA_STARTED_AT} holds the epoch-millis instant the saga began (order creation) and is copied
+ * onto every follow-up event, so the service that completes the saga can measure end-to-end latency.
+ * The per-event creation time is the record's own CreateTime timestamp.
+ */
+public final class SagaHeaders {
+
+    public static final String SAGA_STARTED_AT = "saga-started-at";
+
+    private SagaHeaders() {
+    }
+
+    public static byte[] encodeInstant(Instant instant) {
+        return Long.toString(instant.toEpochMilli()).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Returns null for a missing or malformed header (e.g. events published before the header existed)
+    public static Instant decodeInstant(byte[] value) {
+        if (value == null || value.length == 0) {
+            return null;
+        }
+        try {
+            return Instant.ofEpochMilli(Long.parseLong(new String(value, StandardCharsets.US_ASCII)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.org.springboot4.infra.kafka;
+
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Non-blocking retry layout shared by the saga listeners.
+ * <p>
+ * A failed record is forwarded to {@code <topic>-retry-0}, {@code <topic>-retry-1}, ... with exponentially
+ * growing delays and finally to {@code <topic>-dlt}, so a failing record never holds up the records behind
+ * it on the main topic. Records that cannot be deserialized or converted skip the retry tiers and go straight
+ * to the dead-letter topic, where {@link DeadLetterHandler} records them for a later
+ * {@link DeadLetterReplayer replay}.
+ */
+public final class SagaRetryTopics {
+
+    public static final String RETRY_SUFFIX = "-retry";
+    public static final String DLT_SUFFIX = "-dlt";
+
+    private SagaRetryTopics() {
+    }
+
+    public static RetryTopicConfiguration create(KafkaOperations<?, ?> kafkaOperations, List<String> topics,
+                                                 int maxAttempts, Duration initialDelay, double multiplier,
+                                                 Duration maxDelay, String deadLetterHandlerBeanName) {
+        return RetryTopicConfigurationBuilder.newInstance()
+                .includeTopics(topics)
+                .maxAttempts(maxAttempts)
+                .exponentialBackoff(initialDelay.toMillis(), multiplier, maxDelay.toMillis())
+                .retryTopicSuffix(RETRY_SUFFIX)
+                .dltSuffix(DLT_SUFFIX)
+                .suffixTopicsWithIndexValues()
+                .traversingCauses()
+                .dltHandlerMethod(deadLetterHandlerBeanName, "handle")
+                .create(kafkaOperations);
+    }
+
+    public static String deadLetterTopic(String topic) {
+        return topic + DLT_SUFFIX;
+    }
+
+    // Main topic a dead-letter topic belongs to, or null if the name is not a dead-letter topic
+    public static String mainTopic(String deadLetterTopic) {
+        return deadLetterTopic.endsWith(DLT_SUFFIX)
+                ? deadLetterTopic.substring(0, deadLetterTopic.length() - DLT_SUFFIX.length())
+                : null;
+    }
+}
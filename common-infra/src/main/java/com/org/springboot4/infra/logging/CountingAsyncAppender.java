@@ -0,0 +1,48 @@
+package com.org.springboot4.infra.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logback {@link AsyncAppender} that counts what it throws away, so a non-blocking ({@code neverBlock})
+ * configuration loses log lines visibly instead of silently.
+ * <ul>
+ *   <li>{@code threshold}: TRACE/DEBUG/INFO events discarded because the queue passed the discarding threshold</li>
+ *   <li>{@code full}: events offered while the queue had no capacity left; approximate under contention, since
+ *   the queue itself is not visible to subclasses</li>
+ * </ul>
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private final LongAdder discardedAtThreshold = new LongAdder();
+    private final LongAdder droppedWhenFull = new LongAdder();
+
+    // Only called once the queue is below the discarding threshold; true means the event is dropped
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        boolean discardable = super.isDiscardable(event);
+        if (discardable) {
+            discardedAtThreshold.increment();
+        }
+        return discardable;
+    }
+
+    // Called right before the event is offered to the queue
+    @Override
+    protected void preprocess(ILoggingEvent event) {
+        super.preprocess(event);
+        if (isNeverBlock() && getRemainingCapacity() == 0) {
+            droppedWhenFull.increment();
+        }
+    }
+
+    public long getDiscardedAtThreshold() {
+        return discardedAtThreshold.sum();
+    }
+
+    public long getDroppedWhenFull() {
+        return droppedWhenFull.sum();
+    }
+}
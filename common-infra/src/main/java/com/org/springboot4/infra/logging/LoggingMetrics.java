@@ -0,0 +1,61 @@
+package com.org.springboot4.infra.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+
+/**
+ * Exports what the asynchronous logging pipeline drops, when it is configured:
+ * <ul>
+ *   <li>{@code logging.async.dropped} per {@code appender} and {@code reason} ({@code threshold}, {@code full})</li>
+ *   <li>{@code logging.async.queue.size} per {@code appender}</li>
+ *   <li>{@code logging.sampled.out}: lines denied by {@link RateSamplingTurboFilter}</li>
+ * </ul>
+ * Registers nothing with the default synchronous configuration.
+ */
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        Iterator<?> appenders = context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof CountingAsyncAppender appender) {
+                bindAppender(registry, appender);
+            }
+        }
+        for (TurboFilter filter : context.getTurboFilterList()) {
+            if (filter instanceof RateSamplingTurboFilter sampling) {
+                FunctionCounter.builder("logging.sampled.out", sampling, RateSamplingTurboFilter::getSampledOut)
+                        .description("Log lines denied by per-logger rate sampling")
+                        .register(registry);
+            }
+        }
+    }
+
+    private static void bindAppender(MeterRegistry registry, CountingAsyncAppender appender) {
+        FunctionCounter.builder("logging.async.dropped", appender, CountingAsyncAppender::getDiscardedAtThreshold)
+                .description("Log events dropped by the non-blocking async appender")
+                .tag("appender", appender.getName())
+                .tag("reason", "threshold")
+                .register(registry);
+        FunctionCounter.builder("logging.async.dropped", appender, CountingAsyncAppender::getDroppedWhenFull)
+                .description("Log events dropped by the non-blocking async appender")
+                .tag("appender", appender.getName())
+                .tag("reason", "full")
+                .register(registry);
+        Gauge.builder("logging.async.queue.size", appender, CountingAsyncAppender::getNumberOfElementsInQueue)
+                .description("Log events waiting for the async appender's worker thread")
+                .tag("appender", appender.getName())
+                .register(registry);
+    }
+}
@@ -0,0 +1,106 @@
+package com.org.springboot4.infra.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps INFO and below to {@code eventsPerSecond} lines per second for each logger under the configured
+ * prefixes; the rest are denied before a logging event is even created. WARN and ERROR always pass, and
+ * {@code isXxxEnabled()} checks (no message) never consume the budget.
+ * <pre>
+ * &lt;turboFilter class="com.org.springboot4.infra.logging.RateSamplingTurboFilter"&gt;
+ *     &lt;logger&gt;com.org.springboot4.userservice.event&lt;/logger&gt;
+ *     &lt;eventsPerSecond&gt;50&lt;/eventsPerSecond&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class RateSamplingTurboFilter extends TurboFilter {
+
+    private static final Window UNSAMPLED = new Window();
+
+    private final List<String> loggers = new ArrayList<>();
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final LongAdder sampledOut = new LongAdder();
+    private int eventsPerSecond = 100;
+
+    public void addLogger(String logger) {
+        loggers.add(logger.trim());
+    }
+
+    public void setEventsPerSecond(int eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+    }
+
+    public int getEventsPerSecond() {
+        return eventsPerSecond;
+    }
+
+    public long getSampledOut() {
+        return sampledOut.sum();
+    }
+
+    @Override
+    public void start() {
+        if (loggers.isEmpty()) {
+            addError("No <logger> configured for " + getName());
+            return;
+        }
+        if (eventsPerSecond <= 0) {
+            addError("eventsPerSecond must be positive, was " + eventsPerSecond);
+            return;
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || format == null || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        Window window = windows.computeIfAbsent(logger.getName(), this::windowFor);
+        if (window == UNSAMPLED || window.tryAcquire(System.currentTimeMillis() / 1000, eventsPerSecond)) {
+            return FilterReply.NEUTRAL;
+        }
+        sampledOut.increment();
+        return FilterReply.DENY;
+    }
+
+    private Window windowFor(String loggerName) {
+        for (String prefix : loggers) {
+            if (loggerName.equals(prefix) || loggerName.startsWith(prefix + '.')) {
+                return new Window();
+            }
+        }
+        return UNSAMPLED;
+    }
+
+    // Fixed one-second window; second and count share one long so a check is a single CAS
+    private static final class Window {
+
+        private final AtomicLong state = new AtomicLong();
+
+        boolean tryAcquire(long second, int limit) {
+            while (true) {
+                long current = state.get();
+                boolean sameSecond = current >>> 32 == second;
+                if (sameSecond && (int) current >= limit) {
+                    return false;
+                }
+                long next = sameSecond ? current + 1 : second << 32 | 1;
+                if (state.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.org.springboot4.infra.warmup;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+
+/**
+ * Encodes an event with the producer factory's value serializer and decodes it with a deserializer configured
+ * like the consumer factory's, i.e. the codec chain a published and consumed record goes through, without a broker.
+ */
+public class EventCodecRoundTrip {
+
+    private final Serializer<Object> serializer;
+    private final Deserializer<Object> deserializer;
+
+    public EventCodecRoundTrip(ProducerFactory<String, Object> producerFactory,
+                               ConsumerFactory<String, Object> consumerFactory) {
+        this.serializer = producerFactory.getValueSerializerSupplier().get();
+        ErrorHandlingDeserializer<Object> valueDeserializer = new ErrorHandlingDeserializer<>();
+        valueDeserializer.configure(consumerFactory.getConfigurationProperties(), false);
+        this.deserializer = valueDeserializer;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T roundTrip(String topic, T event) {
+        Headers headers = new RecordHeaders();
+        byte[] payload = serializer.serialize(topic, headers, event);
+        Object decoded = deserializer.deserialize(topic, headers, payload);
+        if (decoded == null || decoded.getClass() != event.getClass()) {
+            throw new IllegalStateException("Could not decode " + event.getClass().getSimpleName() + " on " + topic);
+        }
+        return (T) decoded;
+    }
+}
@@ -0,0 +1,11 @@
+package com.org.springboot4.infra.warmup;
+
+/**
+ * One round of synthetic traffic through a service's controllers and listeners. Runs inside a transaction
+ * that is rolled back afterwards and inside {@link WarmupScope}; {@code iteration} counts from 0.
+ */
+@FunctionalInterface
+public interface WarmupIteration {
+
+    void run(int iteration);
+}
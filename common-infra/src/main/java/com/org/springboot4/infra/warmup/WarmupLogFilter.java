@@ -0,0 +1,25 @@
+package com.org.springboot4.infra.warmup;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+/**
+ * Keeps the synthetic warm-up traffic out of the logs: below ERROR, nothing logged inside a {@link WarmupScope}
+ * is written. Other threads (including Kafka consumers handling real records meanwhile) are not affected.
+ * <pre>
+ * &lt;turboFilter class="com.org.springboot4.infra.warmup.WarmupLogFilter"/&gt;
+ * </pre>
+ */
+public class WarmupLogFilter extends TurboFilter {
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level.isGreaterOrEqual(Level.ERROR) || !WarmupScope.isActive()) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.DENY;
+    }
+}
@@ -0,0 +1,86 @@
+package com.org.springboot4.infra.warmup;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * Runs {@link WarmupIteration}s before the service takes traffic, so JIT compilation, JSON and Kafka codecs,
+ * Hibernate query plans and mappers are warm for the first real requests. Spring Boot reports readiness
+ * ({@code /actuator/health/readiness}) only after all application runners returned.
+ * <p>
+ * Iterations run until {@code iterations} are done or {@code maxDuration} has passed. Each one runs in its own
+ * transaction, which is always rolled back. A failing iteration ends the warm-up early but never fails startup.
+ * Exported as:
+ * <ul>
+ *   <li>{@code startup.warmup} timer, tag {@code outcome} ({@code completed}, {@code time_limit}, {@code failed})</li>
+ *   <li>{@code startup.warmup.iterations} counter</li>
+ * </ul>
+ */
+@Slf4j
+public class WarmupRunner implements ApplicationRunner {
+
+    private final WarmupIteration warmupIteration;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int iterations;
+    private final Duration maxDuration;
+    private final MeterRegistry meterRegistry;
+
+    public WarmupRunner(WarmupIteration warmupIteration, TransactionTemplate transactionTemplate, boolean enabled,
+                        int iterations, Duration maxDuration, MeterRegistry meterRegistry) {
+        this.warmupIteration = warmupIteration;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.maxDuration = maxDuration;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            log.info("Warm-up disabled");
+            return;
+        }
+        Counter completedIterations = Counter.builder("startup.warmup.iterations")
+                .description("Warm-up iterations completed before the service reported ready")
+                .register(meterRegistry);
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        int completed = 0;
+        String outcome = "completed";
+        try {
+            while (completed < iterations) {
+                if (System.nanoTime() - deadline > 0) {
+                    outcome = "time_limit";
+                    break;
+                }
+                int iteration = completed;
+                WarmupScope.call(() -> transactionTemplate.execute(status -> {
+                    status.setRollbackOnly();
+                    warmupIteration.run(iteration);
+                    return null;
+                }));
+                completed++;
+                completedIterations.increment();
+            }
+        } catch (RuntimeException e) {
+            outcome = "failed";
+            log.warn("Warm-up iteration {} failed, continuing startup", completed, e);
+        }
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("startup.warmup")
+                .description("Time spent warming up before the service reported ready")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(Duration.ofNanos(elapsed));
+        log.info("Warm-up {} after {} iterations in {} ms", outcome.replace('_', ' '), completed, elapsed / 1_000_000);
+    }
+}
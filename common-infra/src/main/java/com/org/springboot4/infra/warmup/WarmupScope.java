@@ -0,0 +1,29 @@
+package com.org.springboot4.infra.warmup;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks the current thread as running warm-up traffic. Code with effects outside the (rolled-back) warm-up
+ * transaction checks {@link #isActive()} and skips them: {@link com.org.springboot4.infra.kafka.EventPublisher}
+ * sends nothing, order-service does not call user-service.
+ */
+public final class WarmupScope {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private WarmupScope() {
+    }
+
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+
+    static <T> T call(Supplier<T> action) {
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.org.springboot4.gateway.controller;
 
+import com.org.springboot4.gateway.routing.UserServiceRouter;
+import io.netty.channel.ConnectTimeoutException;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
@@ -12,36 +18,42 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.net.ConnectException;
 import java.net.URI;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * WebFlux reverse proxy controller.
- * Routes: /users/** → user-service (round-robin), /orders/** → order-service
+ * Routes: /users/** → user-service (instance chosen by {@link UserServiceRouter}), /orders/** → order-service
+ * <p>
+ * With affinity routing, order creation also names the user's instance in {@value #USER_SERVICE_INSTANCE_HEADER}
+ * so order-service's credit fast path reserves on the instance that already serves that user.
  */
 @RestController
 public class GatewayController {
 
+	public static final String USER_SERVICE_INSTANCE_HEADER = "X-User-Service-Instance";
+
 	private static final Logger log = LoggerFactory.getLogger(GatewayController.class);
 	private final WebClient webClient;
 	
-	// Round-robin counter for user-service instances
-	private final AtomicInteger userServiceCounter = new AtomicInteger(0);
-	
-	// User service instances for round-robin
-	private static final String[] USER_SERVICE_INSTANCES = {
-		"http://user-service-1:8081",
-		"http://user-service-2:8082"
-	};
+	// Picks the user-service instance (round-robin or user affinity)
+	private final UserServiceRouter userServiceRouter;
 	
 	// Order service instance
-	private static final String ORDER_SERVICE = "http://order-service:8091";
+	private final String orderService;
 
-	public GatewayController(WebClient.Builder webClientBuilder) {
+	public GatewayController(WebClient.Builder webClientBuilder, UserServiceRouter userServiceRouter,
+			@Value("${gateway.order-service.url}") String orderService) {
 		this.webClient = webClientBuilder.build();
+		this.userServiceRouter = userServiceRouter;
+		this.orderService = orderService;
 	}
 
 	@RequestMapping("/users/**")
@@ -49,38 +61,59 @@ public class GatewayController {
 		ServerHttpRequest request = exchange.getRequest();
 		String path = request.getURI().getPath();
 		
-		// Round-robin selection
-		int index = userServiceCounter.getAndIncrement() % USER_SERVICE_INSTANCES.length;
-		String baseUrl = USER_SERVICE_INSTANCES[index];
+		int instance = userServiceRouter.acquire(UserServiceRouter.userKey(path));
+		String baseUrl = userServiceRouter.baseUrl(instance);
 		
-		log.info("Round-robin: Request routed to {} (index: {}, counter: {})", baseUrl, index, userServiceCounter.get());
+		log.info("{}: Request routed to {} (index: {})", userServiceRouter.mode(), baseUrl, instance);
 		
-		return proxyRequest(exchange, baseUrl, path);
+		return forward(exchange, baseUrl, path, request.getBody(), ProxyHeaders.requestHeaders(request.getHeaders()))
+			// Refused connections take the instance out of rotation for a while
+			.doOnError(GatewayController::isConnectionRefused, error -> userServiceRouter.markDown(instance))
+			.onErrorResume(error -> badGateway(exchange, error))
+			.doFinally(signal -> userServiceRouter.release(instance));
 	}
 
 	@RequestMapping("/orders/**")
 	public Mono<ResponseEntity<byte[]>> proxyToOrderService(ServerWebExchange exchange) {
 		ServerHttpRequest request = exchange.getRequest();
 		String path = request.getURI().getPath();
+		HttpHeaders headers = ProxyHeaders.requestHeaders(request.getHeaders());
+		
+		if (userServiceRouter.mode() != UserServiceRouter.Mode.AFFINITY
+				|| request.getMethod() != HttpMethod.POST || !"/orders".equals(path)) {
+			return forward(exchange, orderService, path, request.getBody(), headers)
+				.onErrorResume(error -> badGateway(exchange, error));
+		}
 		
-		return proxyRequest(exchange, ORDER_SERVICE, path);
+		// Order creation bodies are small: buffer it to read userId, then send the same bytes on
+		return DataBufferUtils.join(request.getBody())
+			.map(buffer -> {
+				byte[] body = new byte[buffer.readableByteCount()];
+				buffer.read(body);
+				DataBufferUtils.release(buffer);
+				return body;
+			})
+			.defaultIfEmpty(new byte[0])
+			.flatMap(body -> {
+				String owner = userServiceRouter.ownerOf(UserServiceRouter.canonicalUserId(userId(body)));
+				if (owner != null) {
+					headers.set(USER_SERVICE_INSTANCE_HEADER, owner);
+				}
+				DataBuffer buffered = exchange.getResponse().bufferFactory().wrap(body);
+				return forward(exchange, orderService, path, Mono.just(buffered), headers);
+			})
+			.onErrorResume(error -> badGateway(exchange, error));
 	}
 
 	// Proxies request to target service, preserving method, headers, body, and query params
-	private Mono<ResponseEntity<byte[]>> proxyRequest(ServerWebExchange exchange, String baseUrl, String targetPath) {
+	private Mono<ResponseEntity<byte[]>> forward(ServerWebExchange exchange, String baseUrl, String targetPath,
+			Publisher<DataBuffer> body, HttpHeaders headers) {
 		ServerHttpRequest request = exchange.getRequest();
 		HttpMethod method = request.getMethod();
 		
 		URI targetUri = URI.create(baseUrl + targetPath + 
 			(request.getURI().getQuery() != null ? "?" + request.getURI().getQuery() : ""));
 		
-		HttpHeaders headers = new HttpHeaders();
-		request.getHeaders().forEach((key, values) -> {
-			if (!key.equalsIgnoreCase("host") && !key.equalsIgnoreCase("content-length")) {
-				headers.put(key, values);
-			}
-		});
-		
 		WebClient.RequestBodySpec requestSpec = webClient
 			.method(method)
 			.uri(targetUri)
@@ -89,7 +122,7 @@ public class GatewayController {
 		WebClient.ResponseSpec responseSpec;
 		if (hasBody(method)) {
 			responseSpec = requestSpec
-				.body(BodyInserters.fromDataBuffers(exchange.getRequest().getBody()))
+				.body(BodyInserters.fromDataBuffers(body))
 				.retrieve();
 		} else {
 			responseSpec = requestSpec.retrieve();
@@ -99,27 +132,46 @@ public class GatewayController {
 			.toEntity(byte[].class)
 			.doOnNext(response -> {
 				ServerHttpResponse responseToClient = exchange.getResponse();
-				response.getHeaders().forEach((key, values) -> {
-					if (!key.equalsIgnoreCase("content-length")) {
-						responseToClient.getHeaders().put(key, values);
-					}
-				});
+				ProxyHeaders.copyResponseHeaders(response.getHeaders(), responseToClient.getHeaders());
 				responseToClient.setStatusCode(response.getStatusCode() != null ? 
 					response.getStatusCode() : HttpStatus.INTERNAL_SERVER_ERROR);
-			})
-			.onErrorResume(error -> {
-				ServerHttpResponse responseToClient = exchange.getResponse();
-				responseToClient.setStatusCode(HttpStatus.BAD_GATEWAY);
-				return Mono.just(ResponseEntity
-					.status(HttpStatus.BAD_GATEWAY)
-					.body(("Gateway error: " + error.getMessage()).getBytes()));
 			});
 	}
 
+	private static Mono<ResponseEntity<byte[]>> badGateway(ServerWebExchange exchange, Throwable error) {
+		ServerHttpResponse responseToClient = exchange.getResponse();
+		responseToClient.setStatusCode(HttpStatus.BAD_GATEWAY);
+		return Mono.just(ResponseEntity
+			.status(HttpStatus.BAD_GATEWAY)
+			.body(("Gateway error: " + error.getMessage()).getBytes()));
+	}
+
+	// Timeouts and resets can be a single slow request and keep the instance (and its users) in place
+	private static boolean isConnectionRefused(Throwable error) {
+		if (!(error instanceof WebClientRequestException)) {
+			return false;
+		}
+		for (Throwable cause = error.getCause(); cause != null; cause = cause.getCause()) {
+			if (cause instanceof ConnectException && !(cause instanceof ConnectTimeoutException)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// userId of an order creation body; null when absent or unreadable (order-service validates the body)
+	private static String userId(byte[] body) {
+		try {
+			JsonNode userId = JsonMapper.shared().readTree(body).path("userId");
+			return userId.isString() ? userId.stringValue() : null;
+		} catch (JacksonException e) {
+			return null;
+		}
+	}
+
 	private boolean hasBody(HttpMethod method) {
 		return method == HttpMethod.POST || 
 			   method == HttpMethod.PUT || 
 			   method == HttpMethod.PATCH;
 	}
 }
-
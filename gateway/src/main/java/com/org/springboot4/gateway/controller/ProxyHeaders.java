@@ -0,0 +1,34 @@
+package com.org.springboot4.gateway.controller;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Header copying between the client exchange and the proxied request/response.
+ * Hop-specific headers are dropped: the host is set from the target URI and the content length is
+ * recomputed for the re-encoded body.
+ */
+public final class ProxyHeaders {
+
+	private ProxyHeaders() {
+	}
+
+	// Headers forwarded to the target service (all but host and content-length)
+	public static HttpHeaders requestHeaders(HttpHeaders incoming) {
+		HttpHeaders headers = new HttpHeaders();
+		incoming.forEach((key, values) -> {
+			if (!key.equalsIgnoreCase(HttpHeaders.HOST) && !key.equalsIgnoreCase(HttpHeaders.CONTENT_LENGTH)) {
+				headers.put(key, values);
+			}
+		});
+		return headers;
+	}
+
+	// Copies the target service's response headers to the client response (all but content-length)
+	public static void copyResponseHeaders(HttpHeaders source, HttpHeaders target) {
+		source.forEach((key, values) -> {
+			if (!key.equalsIgnoreCase(HttpHeaders.CONTENT_LENGTH)) {
+				target.put(key, values);
+			}
+		});
+	}
+}
@@ -0,0 +1,83 @@
+package com.org.springboot4.gateway.routing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Hash ring over a fixed list of instances, each placed at {@code virtualNodes} points so keys spread evenly.
+ * A key belongs to the first instance clockwise from its hash; skipping an instance (down or overloaded) hands
+ * its keys to the next instances on the ring and leaves every other key where it was.
+ */
+final class ConsistentHashRing {
+
+	private final long[] points;
+	private final int[] owners;
+	private final int instanceCount;
+
+	ConsistentHashRing(List<String> instances, int virtualNodes) {
+		int size = instances.size() * virtualNodes;
+		long[] hashes = new long[size];
+		int[] instanceOf = new int[size];
+		for (int instance = 0; instance < instances.size(); instance++) {
+			for (int node = 0; node < virtualNodes; node++) {
+				int point = instance * virtualNodes + node;
+				hashes[point] = hash(instances.get(instance) + '#' + node);
+				instanceOf[point] = instance;
+			}
+		}
+		int[] order = IntStream.range(0, size).boxed()
+				.sorted(Comparator.comparingLong(point -> hashes[point]))
+				.mapToInt(Integer::intValue)
+				.toArray();
+		this.points = new long[size];
+		this.owners = new int[size];
+		for (int i = 0; i < size; i++) {
+			points[i] = hashes[order[i]];
+			owners[i] = instanceOf[order[i]];
+		}
+		this.instanceCount = instances.size();
+	}
+
+	// First instance clockwise from the key that the predicate accepts, or -1 if it accepts none
+	int select(String key, IntPredicate accept) {
+		if (points.length == 0) {
+			return -1;
+		}
+		int start = Arrays.binarySearch(points, hash(key));
+		if (start < 0) {
+			start = -start - 1;
+		}
+		boolean[] visited = new boolean[instanceCount];
+		int distinct = 0;
+		for (int i = 0; i < points.length && distinct < instanceCount; i++) {
+			int owner = owners[(start + i) % points.length];
+			if (!visited[owner]) {
+				visited[owner] = true;
+				distinct++;
+				if (accept.test(owner)) {
+					return owner;
+				}
+			}
+		}
+		return -1;
+	}
+
+	// 64-bit FNV-1a finished with the MurmurHash3 mixer, which spreads near-identical inputs ("host#1", "host#2")
+	static long hash(String value) {
+		long hash = 0xcbf29ce484222325L;
+		for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= b & 0xff;
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
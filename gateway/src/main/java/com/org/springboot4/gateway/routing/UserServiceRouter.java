@@ -0,0 +1,204 @@
+package com.org.springboot4.gateway.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Chooses the user-service instance for a request.
+ * <p>
+ * {@code round-robin} spreads requests evenly. {@code affinity} sends every request for a user to the same
+ * instance (consistent hashing on the user id), so each instance's caches and buffer pages only hold its share of
+ * the users. Loads are bounded: an instance already serving more than {@code load-factor} times the average number
+ * of in-flight requests is passed over for the next one on the ring, so a hot user cannot overload one instance.
+ * Requests without a user id are routed round-robin.
+ * <p>
+ * In both modes an instance that refused a connection is skipped for {@code down-cooldown}; with affinity only
+ * its users move and they return when it comes back.
+ */
+@Component
+public class UserServiceRouter {
+
+	public enum Mode {
+		ROUND_ROBIN("Round-robin"), AFFINITY("Affinity");
+
+		private final String label;
+
+		Mode(String label) {
+			this.label = label;
+		}
+
+		@Override
+		public String toString() {
+			return label;
+		}
+	}
+
+	private static final String USERS_PREFIX = "/users/";
+	private static final int UUID_LENGTH = 36;
+
+	private final String[] instances;
+	private final Mode mode;
+	private final ConsistentHashRing ring;
+	private final double loadFactor;
+	private final long downCooldownNanos;
+
+	private final AtomicInteger roundRobinCounter = new AtomicInteger();
+	private final AtomicIntegerArray inFlight;
+	private final AtomicInteger totalInFlight = new AtomicInteger();
+	private final AtomicLongArray downUntilNanos;
+
+	private final Counter[] affinityRequests;
+	private final Counter[] overflowRequests;
+	private final Counter[] roundRobinRequests;
+
+	public UserServiceRouter(@Value("${gateway.user-service.instances}") List<String> instances,
+			@Value("${gateway.user-service.routing:round-robin}") String mode,
+			@Value("${gateway.user-service.affinity.virtual-nodes:160}") int virtualNodes,
+			@Value("${gateway.user-service.affinity.load-factor:1.25}") double loadFactor,
+			@Value("${gateway.user-service.down-cooldown:5s}") Duration downCooldown,
+			MeterRegistry meterRegistry) {
+		this.instances = instances.toArray(String[]::new);
+		this.mode = Mode.valueOf(mode.trim().toUpperCase().replace('-', '_'));
+		this.ring = new ConsistentHashRing(instances, virtualNodes);
+		this.loadFactor = loadFactor;
+		this.downCooldownNanos = downCooldown.toNanos();
+		this.inFlight = new AtomicIntegerArray(this.instances.length);
+		this.downUntilNanos = new AtomicLongArray(this.instances.length);
+		this.affinityRequests = new Counter[this.instances.length];
+		this.overflowRequests = new Counter[this.instances.length];
+		this.roundRobinRequests = new Counter[this.instances.length];
+		for (int i = 0; i < this.instances.length; i++) {
+			affinityRequests[i] = requestCounter(this.instances[i], "affinity", meterRegistry);
+			overflowRequests[i] = requestCounter(this.instances[i], "overflow", meterRegistry);
+			roundRobinRequests[i] = requestCounter(this.instances[i], "round-robin", meterRegistry);
+		}
+	}
+
+	// Canonical user id of /users/{id} and /users/{id}/..., otherwise null
+	public static String userKey(String path) {
+		if (!path.startsWith(USERS_PREFIX) || path.length() < USERS_PREFIX.length() + UUID_LENGTH) {
+			return null;
+		}
+		int end = USERS_PREFIX.length() + UUID_LENGTH;
+		if (path.length() > end && path.charAt(end) != '/') {
+			return null;
+		}
+		return canonicalUserId(path.substring(USERS_PREFIX.length(), end));
+	}
+
+	public static String canonicalUserId(String userId) {
+		if (userId == null) {
+			return null;
+		}
+		try {
+			return UUID.fromString(userId).toString();
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	public Mode mode() {
+		return mode;
+	}
+
+	/**
+	 * Picks an instance and counts the request as in flight until {@link #release(int)}.
+	 * The load check and the increment are not atomic together; concurrent requests may overshoot the bound
+	 * by a request or two, which is fine for balancing.
+	 */
+	public int acquire(String userKey) {
+		int instance = mode == Mode.AFFINITY && userKey != null ? affinityInstance(userKey) : roundRobinInstance();
+		inFlight.incrementAndGet(instance);
+		totalInFlight.incrementAndGet();
+		return instance;
+	}
+
+	public void release(int instance) {
+		inFlight.decrementAndGet(instance);
+		totalInFlight.decrementAndGet();
+	}
+
+	public String baseUrl(int instance) {
+		return instances[instance];
+	}
+
+	public void markDown(int instance) {
+		downUntilNanos.set(instance, System.nanoTime() + downCooldownNanos);
+	}
+
+	// Base URL of the instance owning the user in affinity mode (ignoring load), otherwise null
+	public String ownerOf(String userKey) {
+		if (mode != Mode.AFFINITY || userKey == null) {
+			return null;
+		}
+		int owner = ring.select(userKey, this::isUp);
+		return owner >= 0 ? instances[owner] : null;
+	}
+
+	private int affinityInstance(String userKey) {
+		int owner = ring.select(userKey, this::isUp);
+		if (owner < 0) {
+			// Everything is marked down: try the owner anyway rather than failing without a request
+			owner = ring.select(userKey, instance -> true);
+		}
+		int capacity = capacity();
+		if (inFlight.get(owner) < capacity) {
+			affinityRequests[owner].increment();
+			return owner;
+		}
+		int next = ring.select(userKey, instance -> isUp(instance) && inFlight.get(instance) < capacity);
+		if (next < 0) {
+			affinityRequests[owner].increment();
+			return owner;
+		}
+		overflowRequests[next].increment();
+		return next;
+	}
+
+	private int roundRobinInstance() {
+		int start = roundRobinCounter.getAndIncrement();
+		for (int i = 0; i < instances.length; i++) {
+			int instance = Math.floorMod(start + i, instances.length);
+			if (isUp(instance)) {
+				roundRobinRequests[instance].increment();
+				return instance;
+			}
+		}
+		int instance = Math.floorMod(start, instances.length);
+		roundRobinRequests[instance].increment();
+		return instance;
+	}
+
+	// ceil(c * (m + 1) / n): the bounded-load limit for m requests in flight over n available instances
+	private int capacity() {
+		int available = 0;
+		for (int i = 0; i < instances.length; i++) {
+			if (isUp(i)) {
+				available++;
+			}
+		}
+		return (int) Math.ceil(loadFactor * (totalInFlight.get() + 1) / Math.max(available, 1));
+	}
+
+	private boolean isUp(int instance) {
+		long until = downUntilNanos.get(instance);
+		return until == 0 || System.nanoTime() - until >= 0;
+	}
+
+	private static Counter requestCounter(String instance, String route, MeterRegistry meterRegistry) {
+		return Counter.builder("gateway.user_service.requests")
+				.description("Requests proxied to user-service, by instance and how the instance was chosen")
+				.tag("instance", instance)
+				.tag("route", route)
+				.register(meterRegistry);
+	}
+}
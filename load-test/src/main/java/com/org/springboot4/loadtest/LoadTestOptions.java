@@ -0,0 +1,122 @@
+package com.org.springboot4.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Load-test settings, parsed from {@code --name=value} arguments.
+ *
+ * @param rate             orders per second offered to the gateway (open loop, independent of response times)
+ * @param duration         measured run time
+ * @param warmup           run time before {@code duration} whose results are discarded
+ * @param users            users created before the run; orders are spread evenly over them
+ * @param initialBalance   starting balance of each funded user
+ * @param minAmount        smallest order amount
+ * @param maxAmount        largest order amount
+ * @param rejectRatio      share of orders sent for users without balance (saga ends CANCELED)
+ * @param pollInterval     first poll delay for a pending order; bounds the resolution of the saga latency
+ * @param maxPollInterval  poll delays grow exponentially up to this, so a backlog does not turn into a poll storm
+ * @param sagaTimeout      orders still PENDING after this are counted as timed out
+ * @param userInstances    number of user-service processes behind the gateway
+ * @param partitions       partitions per saga topic
+ * @param postgresUrl      external server ({@code jdbc:postgresql://host:port}); embedded PostgreSQL when null
+ * @param dbUser           user for the external server
+ * @param dbPassword       password for the external server
+ * @param projectDir       repository root containing the built {@code *-exec.jar} files
+ * @param serviceArgs      extra arguments passed to every service, e.g. {@code --app.kafka.wire-format=binary}
+ * @param basePort         first port; gateway, order-service and the user-service instances follow
+ */
+record LoadTestOptions(
+        int rate,
+        Duration duration,
+        Duration warmup,
+        int users,
+        long initialBalance,
+        long minAmount,
+        long maxAmount,
+        double rejectRatio,
+        Duration pollInterval,
+        Duration maxPollInterval,
+        Duration sagaTimeout,
+        int userInstances,
+        int partitions,
+        String postgresUrl,
+        String dbUser,
+        String dbPassword,
+        Path projectDir,
+        String serviceArgs,
+        int basePort
+) {
+
+    private static final Set<String> KNOWN_OPTIONS = Set.of(
+            "rate", "duration", "warmup", "users", "initial-balance", "min-amount", "max-amount", "reject-ratio",
+            "poll-interval", "max-poll-interval", "saga-timeout", "user-instances", "partitions", "postgres-url", "db-user",
+            "db-password", "project-dir", "service-args", "base-port");
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        LoadTestOptions options = new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("rate", "100")),
+                duration(values.getOrDefault("duration", "60s")),
+                duration(values.getOrDefault("warmup", "10s")),
+                Integer.parseInt(values.getOrDefault("users", "100")),
+                Long.parseLong(values.getOrDefault("initial-balance", "100000000")),
+                Long.parseLong(values.getOrDefault("min-amount", "100")),
+                Long.parseLong(values.getOrDefault("max-amount", "10000")),
+                Double.parseDouble(values.getOrDefault("reject-ratio", "0.1")),
+                duration(values.getOrDefault("poll-interval", "20ms")),
+                duration(values.getOrDefault("max-poll-interval", "500ms")),
+                duration(values.getOrDefault("saga-timeout", "30s")),
+                Integer.parseInt(values.getOrDefault("user-instances", "2")),
+                Integer.parseInt(values.getOrDefault("partitions", "3")),
+                values.get("postgres-url"),
+                values.getOrDefault("db-user", "postgres"),
+                values.getOrDefault("db-password", ""),
+                Path.of(values.getOrDefault("project-dir", ".")).toAbsolutePath().normalize(),
+                values.getOrDefault("service-args", ""),
+                Integer.parseInt(values.getOrDefault("base-port", "18080")));
+        values.keySet().removeAll(KNOWN_OPTIONS);
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (options.rate < 1 || options.users < 1 || options.userInstances < 1
+                || options.minAmount < 1 || options.maxAmount < options.minAmount
+                || options.rejectRatio < 0 || options.rejectRatio > 1) {
+            throw new IllegalArgumentException(
+                    "rate, users, user-instances and amounts must be positive, min-amount <= max-amount "
+                            + "and reject-ratio between 0 and 1");
+        }
+        return options;
+    }
+
+    int gatewayPort() {
+        return basePort;
+    }
+
+    int orderServicePort() {
+        return basePort + 1;
+    }
+
+    int userServicePort(int instance) {
+        return basePort + 2 + instance;
+    }
+
+    // Accepts 500ms, 30s, 5m, 1h
+    private static Duration duration(String value) {
+        String normalized = value.trim().toLowerCase();
+        if (normalized.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(normalized.substring(0, normalized.length() - 2)));
+        }
+        return Duration.parse("PT" + normalized.toUpperCase());
+    }
+}
@@ -0,0 +1,87 @@
+package com.org.springboot4.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Outcome of a measured run. Histograms hold microseconds measured from each order's scheduled start.
+ */
+record LoadTestResult(
+        LoadTestOptions options,
+        long sent,
+        long createFailures,
+        long confirmed,
+        long canceled,
+        long timedOut,
+        long pollFailures,
+        Duration offeredTime,
+        Duration elapsed,
+        Histogram createLatency,
+        Histogram sagaLatency
+) {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    long completed() {
+        return confirmed + canceled;
+    }
+
+    void print(PrintStream out) {
+        double seconds = elapsed.toNanos() / 1e9;
+        out.println();
+        out.println("=== Saga load test ===");
+        out.printf("offered rate       %d orders/s for %ds%n", options.rate(), offeredTime.toSeconds());
+        out.printf("orders sent        %d%n", sent);
+        out.printf("create failures    %d%n", createFailures);
+        out.printf("confirmed          %d%n", confirmed);
+        out.printf("canceled           %d (reject ratio %.2f)%n", canceled, options.rejectRatio());
+        out.printf("timed out          %d (after %ds)%n", timedOut, options.sagaTimeout().toSeconds());
+        out.printf("poll failures      %d%n", pollFailures);
+        out.printf("saga throughput    %.1f completed/s%n", completed() / seconds);
+        out.println();
+        printLatency(out, "POST /orders", createLatency);
+        printLatency(out, "saga end-to-end", sagaLatency);
+    }
+
+    /**
+     * Writes both histograms as HdrHistogram percentile distributions (plot with the HdrHistogram plotter).
+     */
+    void writeHistograms(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        writeDistribution(directory.resolve("create-latency.hgrm"), createLatency);
+        writeDistribution(directory.resolve("saga-latency.hgrm"), sagaLatency);
+    }
+
+    private static void printLatency(PrintStream out, String label, Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            out.printf("%-16s no samples%n", label);
+            return;
+        }
+        StringBuilder line = new StringBuilder(String.format("%-16s", label));
+        for (double percentile : PERCENTILES) {
+            line.append(String.format("  p%-4s %8.2f ms", trim(percentile), millis(histogram.getValueAtPercentile(percentile))));
+        }
+        line.append(String.format("  max %8.2f ms", millis(histogram.getMaxValue())));
+        out.println(line);
+    }
+
+    private static void writeDistribution(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            // Values are recorded in microseconds; scale so the file reads in milliseconds
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static String trim(double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,94 @@
+package com.org.springboot4.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Kafka and PostgreSQL for a load-test run: an embedded KRaft broker with the saga topics pre-created, and
+ * either an embedded PostgreSQL or an external server. Each run gets freshly created databases.
+ */
+@Slf4j
+final class LocalInfrastructure implements AutoCloseable {
+
+    static final String USER_DB = "loadtest_user_db";
+    static final String ORDER_DB = "loadtest_order_db";
+
+    private static final String[] SAGA_TOPICS = {
+            "order.created", "order.canceled", "user.credit-reserved", "user.credit-reservation-failed"
+    };
+
+    private final EmbeddedKafkaKraftBroker kafka;
+    private final EmbeddedPostgres embeddedPostgres;
+    private final String serverUrl;
+    private final String dbUser;
+    private final String dbPassword;
+
+    private LocalInfrastructure(EmbeddedKafkaKraftBroker kafka, EmbeddedPostgres embeddedPostgres, String serverUrl,
+                                String dbUser, String dbPassword) {
+        this.kafka = kafka;
+        this.embeddedPostgres = embeddedPostgres;
+        this.serverUrl = serverUrl;
+        this.dbUser = dbUser;
+        this.dbPassword = dbPassword;
+    }
+
+    static LocalInfrastructure start(LoadTestOptions options) throws IOException, SQLException {
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, options.partitions(), SAGA_TOPICS);
+        kafka.afterPropertiesSet();
+        log.info("Embedded Kafka at {}", kafka.getBrokersAsString());
+
+        LocalInfrastructure infrastructure;
+        if (options.postgresUrl() != null) {
+            String serverUrl = options.postgresUrl().replaceAll("/+$", "");
+            infrastructure = new LocalInfrastructure(kafka, null, serverUrl, options.dbUser(), options.dbPassword());
+        } else {
+            // initdb refuses to run as root; use --postgres-url in that case
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            String serverUrl = "jdbc:postgresql://localhost:" + postgres.getPort();
+            infrastructure = new LocalInfrastructure(kafka, postgres, serverUrl, "postgres", "");
+        }
+        log.info("PostgreSQL at {}", infrastructure.serverUrl);
+        infrastructure.recreateDatabase(USER_DB);
+        infrastructure.recreateDatabase(ORDER_DB);
+        return infrastructure;
+    }
+
+    String kafkaBootstrapServers() {
+        return kafka.getBrokersAsString();
+    }
+
+    String jdbcUrl(String database) {
+        return serverUrl + "/" + database;
+    }
+
+    String dbUser() {
+        return dbUser;
+    }
+
+    String dbPassword() {
+        return dbPassword;
+    }
+
+    @Override
+    public void close() throws IOException {
+        kafka.destroy();
+        if (embeddedPostgres != null) {
+            embeddedPostgres.close();
+        }
+    }
+
+    private void recreateDatabase(String database) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl("postgres"), dbUser, dbPassword);
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS " + database + " WITH (FORCE)");
+            statement.execute("CREATE DATABASE " + database);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.org.springboot4.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop saga traffic through the gateway.
+ * <p>
+ * Orders are started on a fixed schedule ({@code rate} per second) regardless of how fast earlier ones
+ * complete, so a slow system builds up a backlog instead of quietly lowering the offered load. Latencies are
+ * measured from each order's scheduled start, which keeps queueing delay in the numbers (no coordinated
+ * omission). Every created order is polled until order-service reports {@code CONFIRMED} or {@code CANCELED}.
+ */
+@Slf4j
+final class SagaLoadDriver {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final LoadTestOptions options;
+    private final URI gateway;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "saga-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Histogram createLatency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final Histogram sagaLatency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong createFailures = new AtomicLong();
+    private final AtomicLong confirmed = new AtomicLong();
+    private final AtomicLong canceled = new AtomicLong();
+    private final AtomicLong pollFailures = new AtomicLong();
+    private final AtomicLong outstanding = new AtomicLong();
+
+    SagaLoadDriver(LoadTestOptions options) {
+        this.options = options;
+        this.gateway = URI.create("http://localhost:" + options.gatewayPort());
+    }
+
+    /**
+     * Creates the funded users and, when {@code rejectRatio > 0}, one user without balance for rejected orders.
+     */
+    Users createUsers() {
+        List<UUID> funded = new ArrayList<>(options.users());
+        for (int i = 0; i < options.users(); i++) {
+            funded.add(createUser("load-" + UUID.randomUUID(), options.initialBalance()));
+        }
+        UUID broke = options.rejectRatio() > 0 ? createUser("load-broke-" + UUID.randomUUID(), 0) : null;
+        return new Users(funded, broke);
+    }
+
+    LoadTestResult run(Users users) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+        log.info("Offering {} orders/s for {} (+{} warm-up)", options.rate(), options.duration(), options.warmup());
+
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * intervalNanos;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            startOrder(users, scheduled, scheduled >= measureFrom);
+        }
+
+        long drainDeadline = System.nanoTime() + options.sagaTimeout().toNanos() + TimeUnit.SECONDS.toNanos(5);
+        while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+        long finished = System.nanoTime();
+        poller.shutdownNow();
+
+        // Whatever was created but never reached a final state timed out, including sagas still pending here
+        long timedOut = sent.get() - createFailures.get() - confirmed.get() - canceled.get();
+        return new LoadTestResult(options, sent.get(), createFailures.get(), confirmed.get(), canceled.get(),
+                timedOut, pollFailures.get(),
+                Duration.ofNanos(end - measureFrom), Duration.ofNanos(finished - measureFrom),
+                createLatency.copy(), sagaLatency.copy());
+    }
+
+    private void startOrder(Users users, long scheduled, boolean measured) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UUID userId = users.broke() != null && random.nextDouble() < options.rejectRatio()
+                ? users.broke()
+                : users.funded().get(random.nextInt(users.funded().size()));
+        long amount = random.nextLong(options.minAmount(), options.maxAmount() + 1);
+        String body = "{\"userId\":\"" + userId + "\",\"amount\":" + amount + "}";
+
+        if (measured) {
+            sent.incrementAndGet();
+        }
+        outstanding.incrementAndGet();
+        http.sendAsync(jsonPost("/orders", body), HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    UUID orderId = error == null && response.statusCode() == 201 ? orderId(response.body()) : null;
+                    if (orderId == null) {
+                        if (measured) {
+                            createFailures.incrementAndGet();
+                        }
+                        outstanding.decrementAndGet();
+                        return;
+                    }
+                    if (measured) {
+                        createLatency.recordValue(micros(System.nanoTime() - scheduled));
+                    }
+                    long deadline = scheduled + options.sagaTimeout().toNanos();
+                    schedulePoll(orderId, scheduled, deadline, measured, options.pollInterval().toNanos());
+                });
+    }
+
+    // Once the drain is over the poller is shut down and the order is left to count as timed out
+    private void schedulePoll(UUID orderId, long scheduled, long deadline, boolean measured, long delayNanos) {
+        if (poller.isShutdown()) {
+            outstanding.decrementAndGet();
+            return;
+        }
+        try {
+            poller.schedule(() -> poll(orderId, scheduled, deadline, measured, delayNanos),
+                    delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            outstanding.decrementAndGet();
+        }
+    }
+
+    private void poll(UUID orderId, long scheduled, long deadline, boolean measured, long delayNanos) {
+        HttpRequest request = HttpRequest.newBuilder(gateway.resolve("/orders/" + orderId)).GET().build();
+        http.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    long now = System.nanoTime();
+                    String status = error == null && response.statusCode() == 200 ? status(response.body()) : null;
+                    if (status == null && measured) {
+                        pollFailures.incrementAndGet();
+                    }
+                    if ("CONFIRMED".equals(status) || "CANCELED".equals(status)) {
+                        if (measured) {
+                            sagaLatency.recordValue(micros(now - scheduled));
+                            ("CONFIRMED".equals(status) ? confirmed : canceled).incrementAndGet();
+                        }
+                        outstanding.decrementAndGet();
+                    } else if (now >= deadline) {
+                        outstanding.decrementAndGet();
+                    } else {
+                        long nextDelay = Math.min(delayNanos * 2, options.maxPollInterval().toNanos());
+                        schedulePoll(orderId, scheduled, deadline, measured, nextDelay);
+                    }
+                });
+    }
+
+    // null when a response body is not the expected order JSON; counted as a failed create or poll
+    private UUID orderId(String body) {
+        try {
+            return UUID.fromString(jsonMapper.readTree(body).path("id").asString());
+        } catch (JacksonException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private String status(String body) {
+        try {
+            JsonNode status = jsonMapper.readTree(body).path("status");
+            return status.isString() ? status.stringValue() : null;
+        } catch (JacksonException e) {
+            return null;
+        }
+    }
+
+    private UUID createUser(String username, long balance) {
+        String body = "{\"username\":\"" + username + "\",\"initialBalance\":" + balance + "}";
+        HttpResponse<String> response = http.sendAsync(jsonPost("/users", body), HttpResponse.BodyHandlers.ofString())
+                .join();
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("Creating user failed: " + response.statusCode() + " " + response.body());
+        }
+        JsonNode user = jsonMapper.readTree(response.body());
+        return UUID.fromString(user.path("id").asString());
+    }
+
+    private HttpRequest jsonPost(String path, String body) {
+        return HttpRequest.newBuilder(gateway.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static long micros(long nanos) {
+        return Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    record Users(List<UUID> funded, UUID broke) {
+    }
+}
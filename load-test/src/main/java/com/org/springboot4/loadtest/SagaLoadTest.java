@@ -0,0 +1,102 @@
+package com.org.springboot4.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * End-to-end saga load test.
+ * <p>
+ * Starts an embedded Kafka broker and PostgreSQL, launches gateway, order-service and the user-service
+ * instances from their built jars, then drives orders through the gateway and reports throughput and
+ * latency percentiles. Run from the repository root after {@code mvn install -DskipTests}:
+ * <pre>
+ * java -jar load-test/target/load-test.jar --rate=200 --duration=60s
+ * </pre>
+ * The services run as separate processes because each module ships its own {@code application.yml} and
+ * Flyway migrations with the same names, which cannot share one classpath.
+ */
+@Slf4j
+public final class SagaLoadTest {
+
+    private SagaLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        try (LocalInfrastructure infrastructure = LocalInfrastructure.start(options);
+             ServiceProcesses services = new ServiceProcesses(options.projectDir())) {
+            Runtime.getRuntime().addShutdownHook(new Thread(services::close, "load-test-shutdown"));
+
+            for (int i = 0; i < options.userInstances(); i++) {
+                List<String> userArgs = serviceArgs(options, infrastructure, LocalInfrastructure.USER_DB);
+                if (i > 0) {
+                    // The first instance migrates user_db, the others wait for it
+                    userArgs.add("--app.flyway.mode=wait");
+                }
+                services.start("user-service-" + (i + 1), "user-service", options.userServicePort(i), userArgs);
+            }
+            List<String> orderArgs = serviceArgs(options, infrastructure, LocalInfrastructure.ORDER_DB);
+            // Only used when the fast path is switched on (--service-args=--app.credit.fast-path.enabled=true)
+            orderArgs.add("--app.credit.fast-path.user-service-urls=" + userServiceUrls(options));
+            services.start("order-service", "order-service", options.orderServicePort(), orderArgs);
+            services.start("gateway", "gateway", options.gatewayPort(), gatewayArgs(options));
+
+            for (int i = 0; i < options.userInstances(); i++) {
+                services.awaitHealthy("user-service-" + (i + 1), options.userServicePort(i));
+            }
+            services.awaitHealthy("order-service", options.orderServicePort());
+            services.awaitHealthy("gateway", options.gatewayPort());
+
+            SagaLoadDriver driver = new SagaLoadDriver(options);
+            SagaLoadDriver.Users users = driver.createUsers();
+            LoadTestResult result = driver.run(users);
+
+            result.print(System.out);
+            Path reportDir = options.projectDir().resolve("load-test/target/report");
+            result.writeHistograms(reportDir);
+            log.info("Latency distributions written to {}", reportDir);
+        }
+    }
+
+    private static List<String> serviceArgs(LoadTestOptions options, LocalInfrastructure infrastructure,
+                                            String database) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + infrastructure.jdbcUrl(database),
+                "--spring.datasource.username=" + infrastructure.dbUser(),
+                "--spring.datasource.password=" + infrastructure.dbPassword(),
+                "--spring.kafka.bootstrap-servers=" + infrastructure.kafkaBootstrapServers(),
+                "--management.tracing.sampling.probability=0"));
+        args.addAll(extraArgs(options));
+        return args;
+    }
+
+    private static List<String> gatewayArgs(LoadTestOptions options) {
+        List<String> args = new ArrayList<>(List.of(
+                "--gateway.user-service.instances=" + userServiceUrls(options),
+                "--gateway.order-service.url=http://localhost:" + options.orderServicePort(),
+                "--management.tracing.sampling.probability=0"));
+        args.addAll(extraArgs(options));
+        return args;
+    }
+
+    private static String userServiceUrls(LoadTestOptions options) {
+        StringJoiner urls = new StringJoiner(",");
+        for (int i = 0; i < options.userInstances(); i++) {
+            urls.add("http://localhost:" + options.userServicePort(i));
+        }
+        return urls.toString();
+    }
+
+    private static List<String> extraArgs(LoadTestOptions options) {
+        if (options.serviceArgs().isBlank()) {
+            return List.of();
+        }
+        return Arrays.asList(options.serviceArgs().trim().split("\\s+"));
+    }
+}
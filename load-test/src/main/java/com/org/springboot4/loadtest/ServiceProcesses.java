@@ -0,0 +1,110 @@
+package com.org.springboot4.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Runs the services as local child processes from their executable jars.
+ * <p>
+ * A single JVM is not an option: the services share {@code application.yml} and {@code db/migration/V1__*}
+ * resource names, so their classpaths cannot be merged. Each process logs to
+ * {@code load-test/target/logs/<name>.log}.
+ */
+@Slf4j
+final class ServiceProcesses implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final Path projectDir;
+    private final Path logDir;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    private final List<Process> processes = new ArrayList<>();
+
+    ServiceProcesses(Path projectDir) throws IOException {
+        this.projectDir = projectDir;
+        this.logDir = Files.createDirectories(projectDir.resolve("load-test/target/logs"));
+    }
+
+    /**
+     * Starts {@code <module>/target/<module>-*-exec.jar} with the given Spring arguments.
+     */
+    void start(String name, String module, int port, List<String> springArgs) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.add("-jar");
+        command.add(executableJar(module).toString());
+        command.add("--server.port=" + port);
+        command.addAll(springArgs);
+
+        Process process = new ProcessBuilder(command)
+                .directory(projectDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(logDir.resolve(name + ".log").toFile())
+                .start();
+        processes.add(process);
+        log.info("Started {} (pid {}) on port {}", name, process.pid(), port);
+    }
+
+    void awaitHealthy(String name, int port) throws InterruptedException {
+        URI health = URI.create("http://localhost:" + port + "/actuator/health");
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (processes.stream().anyMatch(process -> !process.isAlive())) {
+                throw new IllegalStateException(name + " or another service exited during startup, see " + logDir);
+            }
+            try {
+                HttpResponse<String> response = http.send(HttpRequest.newBuilder(health).build(),
+                        HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200 && response.body().contains("\"UP\"")) {
+                    log.info("{} is up", name);
+                    return;
+                }
+            } catch (IOException notYetListening) {
+                // keep polling
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " did not become healthy within " + STARTUP_TIMEOUT);
+    }
+
+    @Override
+    public void close() {
+        processes.forEach(Process::destroy);
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(15, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        processes.clear();
+    }
+
+    private Path executableJar(String module) throws IOException {
+        Path target = projectDir.resolve(module).resolve("target");
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(file -> file.getFileName().toString().endsWith("-exec.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No executable jar in " + target
+                            + "; build with: mvn package -DskipTests"));
+        } catch (NoSuchFileException e) {
+            throw new IllegalStateException(target + " does not exist; build with: mvn package -DskipTests", e);
+        }
+    }
+}
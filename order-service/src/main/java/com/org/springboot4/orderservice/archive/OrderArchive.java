@@ -0,0 +1,203 @@
+package com.org.springboot4.orderservice.archive;
+
+import com.org.springboot4.events.OrderStatus;
+import com.org.springboot4.orderservice.domain.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archived order partitions, kept in the database so every instance sees them: {@code order_archive_blocks}
+ * holds the orders as gzip-compressed CSV blocks (id, user_id, amount, status, created_at) of
+ * {@code app.orders.archive.block-size} orders, and {@code archived_orders} maps each archived id to its block.
+ * <p>
+ * A lookup is one primary key read of {@code archived_orders} plus the decompression of a single block; ids
+ * that were never archived are answered from that index without reading any block.
+ */
+@Slf4j
+@Component
+public class OrderArchive {
+
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String INSERT_BLOCK_SQL =
+            "INSERT INTO order_archive_blocks (partition_name, data, archived_at) VALUES (?, ?, ?) RETURNING id";
+    private static final String INSERT_ID_SQL = "INSERT INTO archived_orders (order_id, block_id) VALUES (?, ?)";
+    private static final String FIND_BLOCK_SQL = """
+            SELECT b.data FROM archived_orders a JOIN order_archive_blocks b ON b.id = a.block_id
+            WHERE a.order_id = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int blockSize;
+    private final Counter hits;
+    private final Counter misses;
+
+    public OrderArchive(JdbcTemplate jdbcTemplate,
+                        @Value("${app.orders.archive.block-size:500}") int blockSize,
+                        MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blockSize = blockSize;
+        this.hits = lookupCounter("hit", meterRegistry);
+        this.misses = lookupCounter("miss", meterRegistry);
+    }
+
+    public static String partitionName(YearMonth month) {
+        return "orders_p" + month.format(PARTITION_MONTH);
+    }
+
+    /**
+     * Copies the rows of {@code partition} into the archive tables. Runs in the caller's transaction on
+     * {@code connection}, so the archive and the removal of the partition commit (or roll back) together.
+     */
+    public long write(Connection connection, String partition) throws SQLException {
+        long rows = 0;
+        try (Statement select = connection.createStatement();
+             BlockWriter blocks = new BlockWriter(connection, partition)) {
+            // Streamed a block at a time (the transaction makes the driver use a cursor)
+            select.setFetchSize(blockSize);
+            try (ResultSet result = select.executeQuery(
+                    "SELECT id, user_id, amount, status, created_at FROM " + partition + " ORDER BY id")) {
+                while (result.next()) {
+                    blocks.add(result.getObject(1, UUID.class), result.getObject(2, UUID.class), result.getLong(3),
+                            result.getString(4), result.getObject(5, LocalDateTime.class));
+                    rows++;
+                }
+            }
+            blocks.flush();
+        }
+        log.info("Archived {} orders of partition {}", rows, partition);
+        return rows;
+    }
+
+    // Not transactional: the connection is only held for the single query, not while the block is decompressed
+    public Optional<Order> find(UUID id) {
+        List<byte[]> blocks = jdbcTemplate.query(FIND_BLOCK_SQL, (result, rowNum) -> result.getBytes(1), id);
+        Optional<Order> order = blocks.isEmpty() ? Optional.empty() : scan(blocks.getFirst(), id + ",");
+        (order.isPresent() ? hits : misses).increment();
+        return order;
+    }
+
+    private static Optional<Order> scan(byte[] block, String prefix) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(block)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(prefix)) {
+                    return Optional.of(parse(line));
+                }
+            }
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read order archive block", e);
+        }
+    }
+
+    private static Order parse(String line) {
+        String[] fields = line.split(",", 5);
+        return Order.builder()
+                .id(UUID.fromString(fields[0]))
+                .userId(UUID.fromString(fields[1]))
+                .amount(Long.parseLong(fields[2]))
+                .status(OrderStatus.valueOf(fields[3]))
+                .createdAt(LocalDateTime.parse(fields[4]))
+                .build();
+    }
+
+    private static Counter lookupCounter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("orders.archive.lookups")
+                .description("Order lookups that were not found in the database and went to the archive")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // Collects rows into a CSV block and stores it with its ids once blockSize rows are in (or on flush)
+    private class BlockWriter implements AutoCloseable {
+
+        private final String partition;
+        private final LocalDateTime archivedAt = LocalDateTime.now();
+        private final PreparedStatement insertBlock;
+        private final PreparedStatement insertIds;
+        private final List<UUID> ids = new ArrayList<>(blockSize);
+        private final StringBuilder csv = new StringBuilder();
+
+        BlockWriter(Connection connection, String partition) throws SQLException {
+            this.partition = partition;
+            this.insertBlock = connection.prepareStatement(INSERT_BLOCK_SQL);
+            this.insertIds = connection.prepareStatement(INSERT_ID_SQL);
+        }
+
+        void add(UUID id, UUID userId, long amount, String status, LocalDateTime createdAt) throws SQLException {
+            ids.add(id);
+            csv.append(id).append(',').append(userId).append(',').append(amount).append(',')
+                    .append(status).append(',').append(createdAt).append('\n');
+            if (ids.size() == blockSize) {
+                flush();
+            }
+        }
+
+        void flush() throws SQLException {
+            if (ids.isEmpty()) {
+                return;
+            }
+            insertBlock.setString(1, partition);
+            insertBlock.setBytes(2, gzip(csv));
+            insertBlock.setObject(3, archivedAt);
+            long blockId;
+            try (ResultSet key = insertBlock.executeQuery()) {
+                key.next();
+                blockId = key.getLong(1);
+            }
+            for (UUID id : ids) {
+                insertIds.setObject(1, id);
+                insertIds.setLong(2, blockId);
+                insertIds.addBatch();
+            }
+            insertIds.executeBatch();
+            ids.clear();
+            csv.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try (insertIds) {
+                insertBlock.close();
+            }
+        }
+
+        private static byte[] gzip(CharSequence csv) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (OutputStream out = new GZIPOutputStream(bytes)) {
+                out.write(csv.toString().getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.org.springboot4.orderservice.archive;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of {@code orders} in shape:
+ * <ul>
+ *   <li>creates the partitions for the current and the next {@code app.orders.partitions.months-ahead} months,
+ *   so inserts never hit a missing range;</li>
+ *   <li>archives partitions whose month ended more than {@code app.orders.archive.after} ago and that only hold
+ *   CONFIRMED or CANCELED orders: in one transaction the partition is locked against writes, its rows are copied
+ *   into {@link OrderArchive} and it is dropped, so no change can land between the copy and the drop.</li>
+ * </ul>
+ * Every instance runs the job; a PostgreSQL advisory lock lets only one of them work at a time.
+ */
+@Slf4j
+@Component
+public class OrderPartitionMaintenance {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("orders_p(\\d{4})_(\\d{2})");
+
+    private static final String TRY_LOCK_SQL =
+            "SELECT pg_try_advisory_lock(hashtext('order-service.orders-partition-maintenance'))";
+    private static final String UNLOCK_SQL =
+            "SELECT pg_advisory_unlock(hashtext('order-service.orders-partition-maintenance'))";
+
+    private static final String ATTACHED_PARTITIONS_SQL = """
+            SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'orders'::regclass""";
+
+    // Dropping a partition locks orders; give up (and retry next run) rather than queue requests behind it
+    private static final String LOCK_TIMEOUT_SQL = "SET LOCAL lock_timeout = '5s'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderArchive orderArchive;
+    private final int monthsAhead;
+    private final Duration archiveAfter;
+    private final Counter archivedPartitions;
+    private final Counter archivedRows;
+
+    public OrderPartitionMaintenance(JdbcTemplate jdbcTemplate, OrderArchive orderArchive,
+                                     @Value("${app.orders.partitions.months-ahead:3}") int monthsAhead,
+                                     @Value("${app.orders.archive.after:90d}") Duration archiveAfter,
+                                     MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.orderArchive = orderArchive;
+        this.monthsAhead = monthsAhead;
+        this.archiveAfter = archiveAfter;
+        this.archivedPartitions = Counter.builder("orders.archive.partitions")
+                .description("Order partitions moved to the archive")
+                .register(meterRegistry);
+        this.archivedRows = Counter.builder("orders.archive.rows")
+                .description("Orders moved to the archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.orders.partitions.initial-delay:30s}",
+            fixedDelayString = "${app.orders.partitions.interval:6h}")
+    public void run() {
+        // One connection for the whole run: the advisory lock belongs to the session
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (!queryBoolean(connection, TRY_LOCK_SQL)) {
+                log.debug("Order partition maintenance is running on another instance");
+                return null;
+            }
+            try {
+                createUpcomingPartitions(connection);
+                archiveExpiredPartitions(connection);
+            } finally {
+                queryBoolean(connection, UNLOCK_SQL);
+            }
+            return null;
+        });
+    }
+
+    private void createUpcomingPartitions(Connection connection) throws SQLException {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            execute(connection, "CREATE TABLE IF NOT EXISTS %s PARTITION OF orders FOR VALUES FROM ('%s') TO ('%s')"
+                    .formatted(OrderArchive.partitionName(month), month.atDay(1), month.plusMonths(1).atDay(1)));
+        }
+    }
+
+    private void archiveExpiredPartitions(Connection connection) throws SQLException {
+        LocalDateTime cutoff = LocalDateTime.now().minus(archiveAfter);
+        for (String partition : queryNames(connection, ATTACHED_PARTITIONS_SQL)) {
+            YearMonth month = monthOf(partition);
+            if (month == null || month.plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff)) {
+                continue;
+            }
+            try {
+                archive(connection, partition);
+            } catch (SQLException | RuntimeException e) {
+                // Left attached; retried on the next run
+                log.error("Failed to archive order partition {}", partition, e);
+            }
+        }
+    }
+
+    private void archive(Connection connection, String partition) throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            execute(connection, LOCK_TIMEOUT_SQL);
+            // Waits for running writes and blocks new ones until commit, so the copy is final
+            execute(connection, "LOCK TABLE " + partition + " IN SHARE MODE");
+            if (queryBoolean(connection, "SELECT EXISTS (SELECT 1 FROM " + partition + " WHERE status = 'PENDING')")) {
+                log.warn("Not archiving order partition {}: it still holds PENDING orders", partition);
+                connection.rollback();
+                return;
+            }
+            long rows = orderArchive.write(connection, partition);
+            execute(connection, "DROP TABLE " + partition);
+            connection.commit();
+            archivedPartitions.increment();
+            archivedRows.increment(rows);
+            log.info("Dropped order partition {} ({} orders archived)", partition, rows);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    // Partitions not created by this job or the migration are left alone
+    private static YearMonth monthOf(String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+    }
+
+    private static boolean queryBoolean(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(sql)) {
+            return result.next() && result.getBoolean(1);
+        }
+    }
+
+    private static List<String> queryNames(Connection connection, String sql) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(sql)) {
+            while (result.next()) {
+                names.add(result.getString(1));
+            }
+        }
+        return names;
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
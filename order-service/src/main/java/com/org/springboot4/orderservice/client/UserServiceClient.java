@@ -0,0 +1,88 @@
+package com.org.springboot4.orderservice.client;
+
+import com.org.springboot4.orderservice.dto.CreditReservationResponse;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Synchronous credit reservation against user-service (the order fast path).
+ * Requests go to the preferred instance when the caller names one of the configured instances (the gateway's
+ * affinity routing, {@value #INSTANCE_HEADER}), otherwise round-robin. They are bounded by a tight timeout;
+ * callers treat any {@link RestClientException} as "outcome unknown" and fall back to the saga.
+ */
+@Slf4j
+@Component
+public class UserServiceClient {
+    
+    public static final String INSTANCE_HEADER = "X-User-Service-Instance";
+    
+    private final boolean enabled;
+    private final List<RestClient> instances;
+    private final Map<String, RestClient> instancesByUrl;
+    private final AtomicInteger next = new AtomicInteger();
+    
+    public UserServiceClient(@Value("${app.credit.fast-path.enabled:false}") boolean enabled,
+                             @Value("${app.credit.fast-path.user-service-urls:}") List<String> urls,
+                             @Value("${app.credit.fast-path.timeout:300ms}") Duration timeout,
+                             ObservationRegistry observationRegistry) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(timeout);
+        
+        this.instancesByUrl = new LinkedHashMap<>();
+        for (String url : urls) {
+            if (!url.isBlank()) {
+                instancesByUrl.put(normalize(url), RestClient.builder()
+                        .baseUrl(url.trim())
+                        .requestFactory(requestFactory)
+                        .observationRegistry(observationRegistry)
+                        .build());
+            }
+        }
+        this.instances = List.copyOf(instancesByUrl.values());
+        this.enabled = enabled && !instances.isEmpty();
+        if (enabled && instances.isEmpty()) {
+            log.warn("Credit fast path enabled without app.credit.fast-path.user-service-urls; using the saga only");
+        }
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public CreditReservationResponse reserveCredit(UUID orderId, UUID userId, Long amount, String preferredInstance) {
+        RestClient client = preferredInstance != null ? instancesByUrl.get(normalize(preferredInstance)) : null;
+        if (client == null) {
+            client = instances.get(Math.floorMod(next.getAndIncrement(), instances.size()));
+        }
+        CreditReservationResponse response = client.post()
+                .uri("/users/{userId}/credit-reservations", userId)
+                .body(Map.of("orderId", orderId, "amount", amount))
+                .retrieve()
+                .body(CreditReservationResponse.class);
+        if (response == null || response.getStatus() == null) {
+            throw new RestClientException("Empty credit reservation response for orderId=" + orderId);
+        }
+        return response;
+    }
+    
+    private static String normalize(String url) {
+        String trimmed = url.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+}
@@ -1,15 +1,33 @@
 package com.org.springboot4.orderservice.config;
 
+import com.org.springboot4.infra.flyway.MigrationMode;
+import com.org.springboot4.infra.flyway.SchemaVersionWaiter;
 import org.flywaydb.core.Flyway;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import javax.sql.DataSource;
+import java.time.Duration;
 
 @Configuration
 public class FlywayConfig {
 
+    // Checked in the bean method rather than with @ConditionalOnProperty: conditions are fixed at build time
+    // under AOT, and the CDS training run must start the context without touching the database
+    @Value("${spring.flyway.enabled:true}")
+    private boolean enabled;
+
+    // migrate on a designated instance or in the one-shot runner, wait everywhere else
+    @Value("${app.flyway.mode:migrate}")
+    private MigrationMode mode;
+
+    @Value("${app.flyway.wait.timeout:5m}")
+    private Duration waitTimeout;
+
+    @Value("${app.flyway.wait.poll-interval:2s}")
+    private Duration waitPollInterval;
+
     @Value("${spring.flyway.locations:classpath:db/migration}")
     private String[] locations;
 
@@ -19,14 +37,23 @@ public class FlywayConfig {
     @Value("${spring.flyway.validate-on-migrate:true}")
     private boolean validateOnMigrate;
 
-    @Bean(initMethod = "migrate")
+    @Bean
     public Flyway flyway(DataSource dataSource) {
-        return Flyway.configure()
+        Flyway flyway = Flyway.configure()
                 .dataSource(dataSource)
                 .locations(locations)
                 .baselineOnMigrate(baselineOnMigrate)
                 .validateOnMigrate(validateOnMigrate)
                 .load();
+        if (!enabled) {
+            return flyway;
+        }
+        switch (mode) {
+            case MIGRATE -> flyway.migrate();
+            case WAIT -> new SchemaVersionWaiter(dataSource, flyway.getConfiguration(), waitTimeout, waitPollInterval)
+                    .await();
+        }
+        return flyway;
     }
 }
 
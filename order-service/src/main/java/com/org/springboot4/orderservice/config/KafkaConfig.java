@@ -1,7 +1,20 @@
 package com.org.springboot4.orderservice.config;
 
+import com.org.springboot4.events.codec.BinaryEventDeserializer;
+import com.org.springboot4.events.codec.BinaryEventSerializer;
+import com.org.springboot4.events.codec.EventWireFormat;
+import com.org.springboot4.infra.kafka.ConsumerLagMonitor;
+import com.org.springboot4.infra.kafka.DeadLetterHandler;
+import com.org.springboot4.infra.kafka.DeadLetterReplayer;
+import com.org.springboot4.infra.kafka.EventPublisher;
+import com.org.springboot4.infra.kafka.ListenerTimingInterceptor;
+import com.org.springboot4.infra.kafka.ProducerProfile;
+import com.org.springboot4.infra.kafka.SagaRetryTopics;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,59 +23,156 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicSchedulerWrapper;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.annotation.EnableKafkaRetryTopic;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Kafka configuration for order-service.
- * Configures producers and consumers with JSON serialization.
+ * Configures producers with the selected wire format (JSON or binary) and consumers that read both.
+ * Producer batching/compression comes from the selected {@link ProducerProfile}; sends go through {@link EventPublisher}.
+ * Exports client, per-listener processing time and consumer-group lag metrics.
+ * Failed records move through non-blocking retry topics to a dead-letter topic (see {@link SagaRetryTopics}).
  * Ensures trace context propagation across Kafka messages.
  */
 @Configuration
 @EnableKafka
+@EnableKafkaRetryTopic
 public class KafkaConfig {
     
+    // Saga topics consumed by this service; each gets retry tiers and a dead-letter topic
+    private static final List<String> SAGA_TOPICS = List.of("user.credit-reserved", "user.credit-reservation-failed");
+    
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
     
+    @Value("${app.kafka.wire-format:json}")
+    private EventWireFormat wireFormat;
+    
+    @Value("${app.kafka.producer.profile:balanced}")
+    private ProducerProfile producerProfile;
+    
+    @Value("${app.kafka.producer.max-in-flight:1000}")
+    private int maxInFlight;
+    
+    @Value("${app.kafka.producer.acquire-timeout:5s}")
+    private Duration acquireTimeout;
+    
+    @Value("${app.kafka.lag-monitor.interval:15s}")
+    private Duration lagMonitorInterval;
+    
+    @Value("${app.kafka.retry.max-attempts:4}")
+    private int retryMaxAttempts;
+    
+    @Value("${app.kafka.retry.initial-delay:1s}")
+    private Duration retryInitialDelay;
+    
+    @Value("${app.kafka.retry.multiplier:2.0}")
+    private double retryMultiplier;
+    
+    @Value("${app.kafka.retry.max-delay:10s}")
+    private Duration retryMaxDelay;
+    
     @Bean
-    public ProducerFactory<String, Object> producerFactory() {
+    public ProducerFactory<String, Object> producerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        producerProfile.applyTo(configProps);
+        Serializer<?> eventSerializer = wireFormat == EventWireFormat.BINARY
+                ? new BinaryEventSerializer() : new JsonSerializer<>();
+        // Undeserializable records are forwarded to the dead-letter topic as their original bytes
+        Serializer<Object> valueSerializer = new DelegatingByTypeSerializer(
+                Map.of(byte[].class, new ByteArraySerializer(), Object.class, eventSerializer), true);
+        DefaultKafkaProducerFactory<String, Object> factory =
+                new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), valueSerializer);
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
+    }
+    
+    @Bean
+    public KafkaTemplate<String, Object> kafkaTemplate(ProducerFactory<String, Object> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
     }
     
     @Bean
-    public KafkaTemplate<String, Object> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public EventPublisher eventPublisher(KafkaTemplate<String, Object> kafkaTemplate, MeterRegistry meterRegistry) {
+        return new EventPublisher(kafkaTemplate, meterRegistry, maxInFlight, acquireTimeout);
     }
     
     @Bean
-    public ConsumerFactory<String, Object> consumerFactory() {
+    public ConsumerFactory<String, Object> consumerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "order-service-group");
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        // Binary payloads are decoded directly; anything else (JSON during migration) goes to JsonDeserializer
+        // Deserialization failures surface as DeserializationException so the record goes straight to the DLT
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, BinaryEventDeserializer.class);
+        props.put(BinaryEventDeserializer.FALLBACK_DESERIALIZER_CLASS, JsonDeserializer.class);
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
-        return new DefaultKafkaConsumerFactory<>(props);
+        DefaultKafkaConsumerFactory<String, Object> factory = new DefaultKafkaConsumerFactory<>(props);
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
     
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory(
+            ConsumerFactory<String, Object> consumerFactory, MeterRegistry meterRegistry) {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory = 
                 new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
-        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        factory.setConsumerFactory(consumerFactory);
+        // Listeners take no Acknowledgment, so offsets are committed by the container after each record
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
+        factory.setRecordInterceptor(new ListenerTimingInterceptor(meterRegistry));
         return factory;
     }
+    
+    @Bean
+    public ConsumerLagMonitor consumerLagMonitor(MeterRegistry meterRegistry) {
+        return new ConsumerLagMonitor(bootstrapServers, "order-service-group", lagMonitorInterval, meterRegistry);
+    }
+    
+    @Bean
+    public DeadLetterHandler deadLetterHandler(MeterRegistry meterRegistry) {
+        return new DeadLetterHandler(meterRegistry);
+    }
+    
+    // Resumes back-off-paused retry partitions; dedicated so the app does not need a shared TaskScheduler
+    @Bean
+    public RetryTopicSchedulerWrapper retryTopicSchedulerWrapper() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("kafka-retry-");
+        return new RetryTopicSchedulerWrapper(scheduler);
+    }
+    
+    @Bean
+    public RetryTopicConfiguration sagaRetryTopicConfiguration(KafkaTemplate<String, Object> kafkaTemplate) {
+        return SagaRetryTopics.create(kafkaTemplate, SAGA_TOPICS, retryMaxAttempts, retryInitialDelay,
+                retryMultiplier, retryMaxDelay, "deadLetterHandler");
+    }
+    
+    @Bean
+    public DeadLetterReplayer deadLetterReplayer(MeterRegistry meterRegistry) {
+        Set<String> deadLetterTopics = SAGA_TOPICS.stream()
+                .map(SagaRetryTopics::deadLetterTopic)
+                .collect(Collectors.toUnmodifiableSet());
+        return new DeadLetterReplayer(bootstrapServers, "order-service-group", deadLetterTopics, meterRegistry);
+    }
 }
-
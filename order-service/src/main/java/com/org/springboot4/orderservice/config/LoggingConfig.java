@@ -0,0 +1,15 @@
+package com.org.springboot4.orderservice.config;
+
+import com.org.springboot4.infra.logging.LoggingMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Drop and sampling counters of the async-logging profile (see logback-spring.xml)
+@Configuration
+public class LoggingConfig {
+    
+    @Bean
+    public LoggingMetrics loggingMetrics() {
+        return new LoggingMetrics();
+    }
+}
@@ -0,0 +1,10 @@
+package com.org.springboot4.orderservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Runs OrderPartitionMaintenance and the OrderIdempotency key purge
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,31 @@
+package com.org.springboot4.orderservice.config;
+
+import com.org.springboot4.infra.warmup.WarmupRunner;
+import com.org.springboot4.orderservice.warmup.OrderServiceWarmup;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+// Warm-up before readiness (see WarmupRunner)
+@Configuration
+public class WarmupConfig {
+    
+    @Value("${app.warmup.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.warmup.iterations:2000}")
+    private int iterations;
+    
+    @Value("${app.warmup.max-duration:30s}")
+    private Duration maxDuration;
+    
+    @Bean
+    public WarmupRunner warmupRunner(OrderServiceWarmup orderServiceWarmup, TransactionTemplate transactionTemplate,
+                                     MeterRegistry meterRegistry) {
+        return new WarmupRunner(orderServiceWarmup, transactionTemplate, enabled, iterations, maxDuration, meterRegistry);
+    }
+}
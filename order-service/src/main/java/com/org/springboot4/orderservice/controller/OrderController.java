@@ -1,7 +1,9 @@
 package com.org.springboot4.orderservice.controller;
 
+import com.org.springboot4.orderservice.client.UserServiceClient;
 import com.org.springboot4.orderservice.dto.CreateOrderRequest;
 import com.org.springboot4.orderservice.dto.OrderDto;
+import com.org.springboot4.orderservice.idempotency.OrderIdempotency;
 import com.org.springboot4.orderservice.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -18,10 +20,20 @@ public class OrderController {
     
     private final OrderService orderService;
     
+    // The gateway names the user's user-service instance when it routes users by affinity.
+    // A repeated Idempotency-Key returns the key's order again, marked with Idempotent-Replayed: true.
     @PostMapping
-    public ResponseEntity<OrderDto> createOrder(@Valid @RequestBody CreateOrderRequest request) {
-        OrderDto order = orderService.createOrder(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(order);
+    public ResponseEntity<OrderDto> createOrder(@Valid @RequestBody CreateOrderRequest request,
+                                                @RequestHeader(name = UserServiceClient.INSTANCE_HEADER, required = false)
+                                                String userServiceInstance,
+                                                @RequestHeader(name = OrderIdempotency.KEY_HEADER, required = false)
+                                                String idempotencyKey) {
+        OrderIdempotency.Result result = orderService.createOrder(request, userServiceInstance, idempotencyKey);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CREATED);
+        if (result.replayed()) {
+            response.header(OrderIdempotency.REPLAYED_HEADER, "true");
+        }
+        return response.body(result.order());
     }
     
     @GetMapping("/{id}")
@@ -1,11 +1,13 @@
 package com.org.springboot4.orderservice.domain;
 
 import com.org.springboot4.events.OrderStatus;
+import com.org.springboot4.infra.id.UuidV7Generator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -18,8 +20,9 @@ import java.util.UUID;
 @AllArgsConstructor
 public class Order {
     
+    // Time-ordered (UUIDv7) so new rows append to the primary key index
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
     
     @Column(name = "user_id", nullable = false)
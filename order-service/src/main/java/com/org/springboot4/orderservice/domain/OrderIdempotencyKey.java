@@ -0,0 +1,36 @@
+package com.org.springboot4.orderservice.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Written with the order it points to (OrderIdempotencyKeyRepository#insertIfAbsent)
+@Entity
+@Table(name = "order_idempotency_keys")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIdempotencyKey {
+    
+    @Id
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+    
+    @Column(name = "order_id", nullable = false)
+    private UUID orderId;
+    
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+    
+    @Column(nullable = false)
+    private Long amount;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,29 @@
+package com.org.springboot4.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+// Body of user-service's POST /users/{id}/credit-reservations
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreditReservationResponse {
+    
+    public static final String RESERVED = "RESERVED";
+    
+    private UUID orderId;
+    private UUID userId;
+    private Long amount;
+    // RESERVED, REJECTED or RELEASED (canceled before the reservation was made)
+    private String status;
+    private String reason;
+    
+    public boolean isReserved() {
+        return RESERVED.equals(status);
+    }
+}
@@ -2,16 +2,21 @@ package com.org.springboot4.orderservice.event;
 
 import com.org.springboot4.events.UserCreditReservationFailedEvent;
 import com.org.springboot4.events.UserCreditReservedEvent;
+import com.org.springboot4.infra.kafka.SagaHeaders;
+import com.org.springboot4.orderservice.metrics.SagaMetrics;
 import com.org.springboot4.orderservice.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Listens to credit events from user-service.
  * Updates order status: UserCreditReservedEvent -> CONFIRMED, UserCreditReservationFailedEvent -> CANCELED
+ * and records the end-to-end saga latency from the saga start header.
+ * Failures propagate to the container, which moves the record through the retry topics and finally to the DLT.
  */
 @Slf4j
 @Component
@@ -19,31 +24,28 @@ import org.springframework.transaction.annotation.Transactional;
 public class CreditEventListeners {
     
     private final OrderService orderService;
+    private final SagaMetrics sagaMetrics;
     
     @KafkaListener(topics = "user.credit-reserved", groupId = "order-service-group")
     @Transactional
-    public void handleCreditReserved(UserCreditReservedEvent event) {
+    public void handleCreditReserved(UserCreditReservedEvent event,
+                                     @Header(name = SagaHeaders.SAGA_STARTED_AT, required = false) byte[] sagaStartedAt) {
         log.info("Received UserCreditReservedEvent: orderId={}, userId={}, amount={}", 
                 event.orderId(), event.userId(), event.amount());
         
-        try {
-            orderService.confirmOrder(event.orderId());
-        } catch (Exception e) {
-            log.error("Error confirming order orderId={}", event.orderId(), e);
-        }
+        orderService.confirmOrder(event.orderId());
+        sagaMetrics.recordConfirmed(SagaHeaders.decodeInstant(sagaStartedAt));
     }
     
     @KafkaListener(topics = "user.credit-reservation-failed", groupId = "order-service-group")
     @Transactional
-    public void handleCreditReservationFailed(UserCreditReservationFailedEvent event) {
+    public void handleCreditReservationFailed(UserCreditReservationFailedEvent event,
+                                              @Header(name = SagaHeaders.SAGA_STARTED_AT, required = false) byte[] sagaStartedAt) {
         log.info("Received UserCreditReservationFailedEvent: orderId={}, userId={}, amount={}, reason={}", 
                 event.orderId(), event.userId(), event.amount(), event.reason());
         
-        try {
-            orderService.cancelOrder(event.orderId());
-        } catch (Exception e) {
-            log.error("Error canceling order orderId={}", event.orderId(), e);
-        }
+        orderService.cancelOrder(event.orderId());
+        sagaMetrics.recordCanceled(SagaHeaders.decodeInstant(sagaStartedAt));
     }
 }
 
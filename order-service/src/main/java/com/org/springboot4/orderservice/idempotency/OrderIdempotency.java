@@ -0,0 +1,180 @@
+package com.org.springboot4.orderservice.idempotency;
+
+import com.org.springboot4.orderservice.domain.OrderIdempotencyKey;
+import com.org.springboot4.orderservice.dto.CreateOrderRequest;
+import com.org.springboot4.orderservice.dto.OrderDto;
+import com.org.springboot4.orderservice.repository.OrderIdempotencyKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for POST /orders: a key stands for the first order created with it, and
+ * duplicates get that order back without a new insert or OrderCreatedEvent.
+ * <ul>
+ *   <li>In memory, a bounded map of recent keys holds the first call's result. Duplicates that arrive while
+ *   it is still running wait for it (up to {@code wait}) instead of starting a second order.</li>
+ *   <li>In {@code order_idempotency_keys}, written in the order's own transaction (see OrderService), which
+ *   covers retries that reach another instance or come back after the in-memory entry is gone.</li>
+ * </ul>
+ * Reusing a key for another user or amount is rejected with 422. Keys are kept for {@code retention}.
+ */
+@Slf4j
+@Component
+public class OrderIdempotency {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final OrderIdempotencyKeyRepository repository;
+    private final int maxEntries;
+    private final Duration wait;
+    private final Duration retention;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter memoryReplays;
+    private final Counter databaseReplays;
+
+    public OrderIdempotency(OrderIdempotencyKeyRepository repository,
+                            @Value("${app.orders.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${app.orders.idempotency.wait:10s}") Duration wait,
+                            @Value("${app.orders.idempotency.retention:24h}") Duration retention,
+                            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.maxEntries = maxEntries;
+        this.wait = wait;
+        this.retention = retention;
+        this.memoryReplays = replayCounter("memory", meterRegistry);
+        this.databaseReplays = replayCounter("database", meterRegistry);
+    }
+
+    public record Result(OrderDto order, boolean replayed) {
+    }
+
+    private record Entry(UUID userId, Long amount, CompletableFuture<OrderDto> order, long createdNanos) {
+    }
+
+    // Runs create unless this instance already has (or is running) the key; a failed create forgets the key again
+    public Result execute(String key, CreateOrderRequest request, Supplier<Result> create) {
+        validate(key);
+        Entry entry = new Entry(request.getUserId(), request.getAmount(), new CompletableFuture<>(), System.nanoTime());
+        Entry existing;
+        while ((existing = entries.putIfAbsent(key, entry)) != null && isExpired(existing)) {
+            entries.remove(key, existing);
+        }
+        if (existing != null) {
+            requireSameRequest(key, existing.userId(), existing.amount(), request);
+            OrderDto order = await(key, existing.order());
+            memoryReplays.increment();
+            return new Result(order, true);
+        }
+
+        evictIfFull();
+        try {
+            Result result = create.get();
+            entry.order().complete(result.order());
+            return result;
+        } catch (RuntimeException e) {
+            entries.remove(key, entry);
+            entry.order().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Order recorded for the key by any instance; call within a read-write transaction so it is read on the primary
+    public Optional<UUID> findStoredOrderId(String key, CreateOrderRequest request) {
+        Optional<OrderIdempotencyKey> stored = repository.findById(key);
+        stored.ifPresent(row -> {
+            requireSameRequest(key, row.getUserId(), row.getAmount(), request);
+            databaseReplays.increment();
+        });
+        return stored.map(OrderIdempotencyKey::getOrderId);
+    }
+
+    @Scheduled(initialDelayString = "${app.orders.idempotency.purge-interval:1h}",
+            fixedDelayString = "${app.orders.idempotency.purge-interval:1h}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = repository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} idempotency keys older than {}", deleted, retention);
+        }
+    }
+
+    private static void validate(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    KEY_HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    private static void requireSameRequest(String key, UUID userId, Long amount, CreateOrderRequest request) {
+        if (!Objects.equals(userId, request.getUserId()) || !Objects.equals(amount, request.getAmount())) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_CONTENT,
+                    KEY_HEADER + " " + key + " was already used for a different order request");
+        }
+    }
+
+    // Duplicates share the first call's outcome, including its failure
+    private OrderDto await(String key, CompletableFuture<OrderDto> order) {
+        try {
+            return order.get(wait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A request with " + KEY_HEADER + " " + key + " is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + KEY_HEADER + " " + key, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private boolean isExpired(Entry entry) {
+        return entry.order().isDone() && System.nanoTime() - entry.createdNanos() > retention.toNanos();
+    }
+
+    // Finished keys can be forgotten at any time, order_idempotency_keys still answers them; running ones are kept
+    private void evictIfFull() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        entries.values().removeIf(this::isExpired);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            if (iterator.next().order().isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static Counter replayCounter(String source, MeterRegistry meterRegistry) {
+        return Counter.builder("orders.idempotency.replays")
+                .description("Duplicate order submissions answered with the order created for their Idempotency-Key")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
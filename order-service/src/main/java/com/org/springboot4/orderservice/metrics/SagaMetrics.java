@@ -0,0 +1,60 @@
+package com.org.springboot4.orderservice.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * End-to-end saga latency: time from POST /orders to the order reaching its final status,
+ * exported as {@code saga.completion} with an {@code outcome} tag (confirmed / canceled).
+ * Orders decided by the credit fast path are recorded too, and {@code saga.fast_path} counts its outcomes
+ * (reserved / rejected / fallback).
+ */
+@Component
+public class SagaMetrics {
+
+    private final Timer confirmed;
+    private final Timer canceled;
+    private final MeterRegistry meterRegistry;
+
+    public SagaMetrics(MeterRegistry meterRegistry) {
+        this.confirmed = completionTimer("confirmed", meterRegistry);
+        this.canceled = completionTimer("canceled", meterRegistry);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordConfirmed(Instant sagaStartedAt) {
+        record(confirmed, sagaStartedAt);
+    }
+
+    public void recordCanceled(Instant sagaStartedAt) {
+        record(canceled, sagaStartedAt);
+    }
+
+    public void recordFastPath(String outcome) {
+        Counter.builder("saga.fast_path")
+                .description("Orders attempted through the synchronous credit reservation, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // Events without the saga start header (published by older versions) are skipped
+    private static void record(Timer timer, Instant sagaStartedAt) {
+        if (sagaStartedAt != null) {
+            timer.record(Duration.between(sagaStartedAt, Instant.now()));
+        }
+    }
+
+    private static Timer completionTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("saga.completion")
+                .description("Time from order creation until the saga confirmed or canceled the order")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
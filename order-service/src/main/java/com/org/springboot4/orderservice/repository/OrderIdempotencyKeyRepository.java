@@ -0,0 +1,27 @@
+package com.org.springboot4.orderservice.repository;
+
+import com.org.springboot4.orderservice.domain.OrderIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface OrderIdempotencyKeyRepository extends JpaRepository<OrderIdempotencyKey, String> {
+    
+    // Returns 0 when the key is taken. A transaction still holding the key makes this wait for its outcome.
+    @Modifying
+    @Query(value = """
+            INSERT INTO order_idempotency_keys (idempotency_key, order_id, user_id, amount, created_at)
+            VALUES (:key, :orderId, :userId, :amount, :createdAt)
+            ON CONFLICT (idempotency_key) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(String key, UUID orderId, UUID userId, Long amount, LocalDateTime createdAt);
+    
+    @Modifying
+    @Query(value = "DELETE FROM order_idempotency_keys WHERE created_at < :cutoff", nativeQuery = true)
+    int deleteCreatedBefore(LocalDateTime cutoff);
+}
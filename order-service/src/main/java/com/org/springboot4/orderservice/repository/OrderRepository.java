@@ -2,11 +2,18 @@ package com.org.springboot4.orderservice.repository;
 
 import com.org.springboot4.orderservice.domain.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.UUID;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, UUID> {
+    
+    // Returns 0 when the order is gone or no longer PENDING, i.e. something else already decided it
+    @Modifying
+    @Query(value = "UPDATE orders SET status = :status WHERE id = :id AND status = 'PENDING'", nativeQuery = true)
+    int updateStatusIfPending(UUID id, String status);
 }
 
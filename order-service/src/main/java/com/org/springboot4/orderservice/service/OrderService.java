@@ -3,21 +3,37 @@ package com.org.springboot4.orderservice.service;
 import com.org.springboot4.events.OrderCanceledEvent;
 import com.org.springboot4.events.OrderCreatedEvent;
 import com.org.springboot4.events.OrderStatus;
+import com.org.springboot4.infra.kafka.EventPublisher;
+import com.org.springboot4.infra.warmup.WarmupScope;
+import com.org.springboot4.orderservice.archive.OrderArchive;
+import com.org.springboot4.orderservice.client.UserServiceClient;
 import com.org.springboot4.orderservice.domain.Order;
 import com.org.springboot4.orderservice.dto.CreateOrderRequest;
+import com.org.springboot4.orderservice.dto.CreditReservationResponse;
 import com.org.springboot4.orderservice.dto.OrderDto;
+import com.org.springboot4.orderservice.idempotency.OrderIdempotency;
 import com.org.springboot4.orderservice.mapper.OrderMapper;
+import com.org.springboot4.orderservice.metrics.SagaMetrics;
+import com.org.springboot4.orderservice.repository.OrderIdempotencyKeyRepository;
 import com.org.springboot4.orderservice.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
- * Order service: creates orders and publishes events, handles saga completion
+ * Order service: creates orders and publishes events, handles saga completion.
+ * With the credit fast path enabled, credit is first reserved synchronously and the order is finalized inline;
+ * when that call fails or times out the order continues through the OrderCreatedEvent saga instead.
+ * Reservations are idempotent per orderId in user-service, so a call that timed out after reserving
+ * is not charged again by the saga.
+ * With an Idempotency-Key, duplicate submissions return the key's order instead of creating another one.
  */
 @Slf4j
 @Service
@@ -26,35 +42,141 @@ public class OrderService {
     
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final EventPublisher eventPublisher;
     
-    // Creates order with PENDING status and publishes OrderCreatedEvent
-    @Transactional
-    public OrderDto createOrder(CreateOrderRequest request) {
+    private final UserServiceClient userServiceClient;
+    private final SagaMetrics sagaMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderArchive orderArchive;
+    private final OrderIdempotency orderIdempotency;
+    private final OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+    
+    // Creates order with PENDING status, then finalizes it via the fast path or starts the saga.
+    // Not transactional: the order is committed before user-service is called so no connection is held meanwhile.
+    // userServiceInstance (optional) is the user-service instance preferred for the fast path.
+    // idempotencyKey (optional) makes duplicate submissions return the first order (replayed = true).
+    public OrderIdempotency.Result createOrder(CreateOrderRequest request, String userServiceInstance,
+                                               String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return create(request, userServiceInstance, null);
+        }
+        return orderIdempotency.execute(idempotencyKey, request,
+                () -> create(request, userServiceInstance, idempotencyKey));
+    }
+    
+    private OrderIdempotency.Result create(CreateOrderRequest request, String userServiceInstance,
+                                           String idempotencyKey) {
+        if (idempotencyKey != null) {
+            // Retries usually come after the first attempt finished: a key lookup spares the insert
+            Optional<OrderDto> replay = findReplay(idempotencyKey, request);
+            if (replay.isPresent()) {
+                return new OrderIdempotency.Result(replay.get(), true);
+            }
+        }
+        
+        Instant sagaStartedAt = Instant.now();
         Order order = Order.builder()
                 .userId(request.getUserId())
                 .amount(request.getAmount())
                 .status(OrderStatus.PENDING)
                 .build();
         
-        Order saved = orderRepository.save(order);
+        // The key is claimed in the order's transaction; a concurrent claim elsewhere waits for this one's outcome
+        Order saved = transactionTemplate.execute(status -> {
+            Order persisted = orderRepository.save(order);
+            if (idempotencyKey != null && orderIdempotencyKeyRepository.insertIfAbsent(idempotencyKey,
+                    persisted.getId(), persisted.getUserId(), persisted.getAmount(), LocalDateTime.now()) == 0) {
+                status.setRollbackOnly();
+                return null;
+            }
+            return persisted;
+        });
+        if (saved == null) {
+            OrderDto replay = findReplay(idempotencyKey, request)
+                    .orElseThrow(() -> new IllegalStateException("Idempotency key vanished: " + idempotencyKey));
+            return new OrderIdempotency.Result(replay, true);
+        }
         log.info("Created order: id={}, userId={}, amount={}", saved.getId(), saved.getUserId(), saved.getAmount());
         
+        // Warm-up orders must not reach user-service: its reservations would outlive the rolled-back order
+        if (userServiceClient.isEnabled() && !WarmupScope.isActive()) {
+            Order finalized = tryFastPath(saved, userServiceInstance, sagaStartedAt);
+            if (finalized != null) {
+                return new OrderIdempotency.Result(orderMapper.toDto(finalized), false);
+            }
+        }
+        
         OrderCreatedEvent event = new OrderCreatedEvent(
                 saved.getId(),
                 saved.getUserId(),
                 saved.getAmount()
         );
         
-        kafkaTemplate.send("order.created", event);
+        eventPublisher.publish("order.created", saved.getId().toString(), event, sagaStartedAt);
         log.info("Published OrderCreatedEvent for orderId={}", saved.getId());
         
-        return orderMapper.toDto(saved);
+        return new OrderIdempotency.Result(orderMapper.toDto(saved), false);
+    }
+    
+    // Current state of the key's order; read-write transactions so it is read on the primary, not a lagging
+    // replica. An archived order is looked up after the transaction.
+    private Optional<OrderDto> findReplay(String idempotencyKey, CreateOrderRequest request) {
+        Optional<UUID> orderId = transactionTemplate.execute(
+                status -> orderIdempotency.findStoredOrderId(idempotencyKey, request));
+        return orderId.map(id -> transactionTemplate.execute(status -> orderRepository.findById(id))
+                .or(() -> orderArchive.find(id))
+                .map(orderMapper::toDto)
+                .orElseThrow(() -> new RuntimeException("Order not found: " + id)));
+    }
+    
+    // Returns the finalized order, or null when the outcome is unknown and the saga has to take over
+    private Order tryFastPath(Order order, String userServiceInstance, Instant sagaStartedAt) {
+        try {
+            CreditReservationResponse reservation = userServiceClient.reserveCredit(
+                    order.getId(), order.getUserId(), order.getAmount(), userServiceInstance);
+            
+            // Nothing to compensate on rejection, so the order is canceled without an OrderCanceledEvent
+            OrderStatus finalStatus = reservation.isReserved() ? OrderStatus.CONFIRMED : OrderStatus.CANCELED;
+            // Only a still PENDING order is finalized; a DELETE during the call keeps its CANCELED status
+            // (its OrderCanceledEvent releases the reservation)
+            Order finalized = transactionTemplate.execute(status -> {
+                if (orderRepository.updateStatusIfPending(order.getId(), finalStatus.name()) == 0) {
+                    return null;
+                }
+                order.setStatus(finalStatus);
+                return order;
+            });
+            if (finalized == null) {
+                sagaMetrics.recordFastPath("superseded");
+                log.info("Order decided during fast path, keeping its status: orderId={}", order.getId());
+                return transactionTemplate.execute(status -> orderRepository.findById(order.getId()))
+                        .orElseThrow(() -> new RuntimeException("Order not found: " + order.getId()));
+            }
+            
+            if (finalStatus == OrderStatus.CONFIRMED) {
+                sagaMetrics.recordFastPath("reserved");
+                sagaMetrics.recordConfirmed(sagaStartedAt);
+                log.info("Order confirmed via fast path: orderId={}", order.getId());
+            } else {
+                sagaMetrics.recordFastPath("rejected");
+                sagaMetrics.recordCanceled(sagaStartedAt);
+                log.info("Order canceled via fast path: orderId={}, reason={}", order.getId(), reservation.getReason());
+            }
+            return finalized;
+        } catch (RuntimeException e) {
+            // Outcome unknown (timeout, user-service down, status update failed): the saga replays the
+            // reservation idempotently and reaches the same decision
+            sagaMetrics.recordFastPath("fallback");
+            log.warn("Credit fast path failed for orderId={}, falling back to saga: {}", order.getId(), e.toString());
+            return null;
+        }
     }
     
-    @Transactional(readOnly = true)
+    // Orders of archived partitions are served from OrderArchive. Not transactional: findById runs in its own
+    // read-only transaction, so no connection is held while an archive block is read
     public OrderDto getOrderById(UUID id) {
         Order order = orderRepository.findById(id)
+                .or(() -> orderArchive.find(id))
                 .orElseThrow(() -> new RuntimeException("Order not found: " + id));
         return orderMapper.toDto(order);
     }
@@ -89,7 +211,7 @@ public class OrderService {
                     order.getUserId(),
                     order.getAmount()
             );
-            kafkaTemplate.send("order.canceled", canceledEvent);
+            eventPublisher.publish("order.canceled", orderId.toString(), canceledEvent);
             log.info("Published OrderCanceledEvent for orderId={} (compensation)", orderId);
         }
     }
@@ -0,0 +1,73 @@
+package com.org.springboot4.orderservice.warmup;
+
+import com.org.springboot4.events.UserCreditReservationFailedEvent;
+import com.org.springboot4.events.UserCreditReservedEvent;
+import com.org.springboot4.infra.id.UuidV7;
+import com.org.springboot4.infra.warmup.EventCodecRoundTrip;
+import com.org.springboot4.infra.warmup.WarmupIteration;
+import com.org.springboot4.orderservice.controller.OrderController;
+import com.org.springboot4.orderservice.dto.CreateOrderRequest;
+import com.org.springboot4.orderservice.dto.OrderDto;
+import com.org.springboot4.orderservice.event.CreditEventListeners;
+import jakarta.validation.Validator;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.UUID;
+
+/**
+ * Synthetic traffic for the warm-up: orders are created, read and canceled through OrderController (request and
+ * response JSON included) and finished by the credit listeners with events decoded by the Kafka codecs.
+ * The credit fast path is skipped during warm-up; every write is rolled back by WarmupRunner.
+ */
+@Component
+public class OrderServiceWarmup implements WarmupIteration {
+    
+    private final OrderController orderController;
+    private final CreditEventListeners creditEventListeners;
+    private final JsonMapper jsonMapper;
+    private final Validator validator;
+    private final EventCodecRoundTrip eventCodec;
+    
+    public OrderServiceWarmup(OrderController orderController, CreditEventListeners creditEventListeners,
+                              JsonMapper jsonMapper, Validator validator,
+                              ProducerFactory<String, Object> producerFactory,
+                              ConsumerFactory<String, Object> consumerFactory) {
+        this.orderController = orderController;
+        this.creditEventListeners = creditEventListeners;
+        this.jsonMapper = jsonMapper;
+        this.validator = validator;
+        this.eventCodec = new EventCodecRoundTrip(producerFactory, consumerFactory);
+    }
+    
+    @Override
+    public void run(int iteration) {
+        UUID userId = UuidV7.next();
+        OrderDto reserved = createOrder(userId);
+        creditEventListeners.handleCreditReserved(eventCodec.roundTrip("user.credit-reserved",
+                new UserCreditReservedEvent(reserved.getId(), userId, reserved.getAmount())), null);
+        respond(orderController.getOrderById(reserved.getId()).getBody());
+        orderController.cancelOrder(reserved.getId());
+        
+        OrderDto rejected = createOrder(userId);
+        creditEventListeners.handleCreditReservationFailed(eventCodec.roundTrip("user.credit-reservation-failed",
+                new UserCreditReservationFailedEvent(rejected.getId(), userId, rejected.getAmount(),
+                        "Insufficient balance")), null);
+    }
+    
+    private OrderDto createOrder(UUID userId) {
+        String json = "{\"userId\":\"" + userId + "\",\"amount\":100}";
+        CreateOrderRequest request = jsonMapper.readValue(json, CreateOrderRequest.class);
+        if (!validator.validate(request).isEmpty()) {
+            throw new IllegalStateException("Invalid warm-up request: " + json);
+        }
+        return respond(orderController.createOrder(request, null, null).getBody());
+    }
+    
+    private <T> T respond(T body) {
+        jsonMapper.writeValueAsBytes(body);
+        return body;
+    }
+}
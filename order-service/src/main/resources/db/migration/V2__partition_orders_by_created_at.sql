@@ -0,0 +1,40 @@
+-- Range-partitions orders by month of created_at (partitions are named orders_pYYYY_MM).
+-- Each partition has its own, smaller indexes, and whole months of completed orders can be archived by
+-- detaching a partition instead of deleting rows. The primary key has to include the partition key.
+ALTER TABLE orders RENAME TO orders_unpartitioned;
+ALTER INDEX IF EXISTS orders_pkey RENAME TO orders_unpartitioned_pkey;
+ALTER INDEX IF EXISTS idx_orders_user_id RENAME TO idx_orders_unpartitioned_user_id;
+ALTER INDEX IF EXISTS idx_orders_status RENAME TO idx_orders_unpartitioned_status;
+
+CREATE TABLE orders (
+    id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    amount BIGINT NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_orders_user_id ON orders(user_id);
+CREATE INDEX idx_orders_status ON orders(status);
+
+-- Monthly partitions from the oldest existing order to three months ahead;
+-- OrderPartitionMaintenance keeps creating them ahead from here on
+DO $$
+DECLARE
+    partition_start DATE := date_trunc('month', COALESCE((SELECT min(created_at) FROM orders_unpartitioned), now()));
+    last_start DATE := date_trunc('month', GREATEST((SELECT max(created_at) FROM orders_unpartitioned), now()))
+            + INTERVAL '3 months';
+BEGIN
+    WHILE partition_start <= last_start LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                'orders_p' || to_char(partition_start, 'YYYY_MM'),
+                partition_start, partition_start + INTERVAL '1 month');
+        partition_start := partition_start + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO orders (id, user_id, amount, status, created_at)
+SELECT id, user_id, amount, status, created_at FROM orders_unpartitioned;
+
+DROP TABLE orders_unpartitioned;
@@ -0,0 +1,14 @@
+-- Archived order partitions: gzip-compressed CSV blocks (id, user_id, amount, status, created_at), a few
+-- hundred orders each, so a lookup decompresses one small block instead of a whole month
+CREATE TABLE IF NOT EXISTS order_archive_blocks (
+    id BIGSERIAL PRIMARY KEY,
+    partition_name VARCHAR(64) NOT NULL,
+    data BYTEA NOT NULL,
+    archived_at TIMESTAMP NOT NULL
+);
+
+-- Archived order id -> its block; an id missing here is not archived
+CREATE TABLE IF NOT EXISTS archived_orders (
+    order_id UUID PRIMARY KEY,
+    block_id BIGINT NOT NULL REFERENCES order_archive_blocks(id)
+);
@@ -0,0 +1,111 @@
+package com.org.springboot4.userservice.config;
+
+import com.org.springboot4.infra.datasource.ClientIdFilter;
+import com.org.springboot4.infra.datasource.ReadWriteRoutingDataSource;
+import com.org.springboot4.infra.datasource.ReadYourWritesTracker;
+import com.org.springboot4.infra.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+
+/**
+ * Primary and (optional) replica connection pools behind a read/write routing data source.
+ * Without app.datasource.replica.url every transaction uses the primary.
+ * spring.datasource.hikari.* is applied to both pools like it is to Boot's own pool; the replica keeps its
+ * app.datasource.replica.* size, timeout and credentials on top of it.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+
+    @Value("${spring.datasource.url}")
+    private String primaryUrl;
+
+    @Value("${spring.datasource.username}")
+    private String primaryUsername;
+
+    @Value("${spring.datasource.password}")
+    private String primaryPassword;
+
+    @Value("${app.datasource.primary.maximum-pool-size:10}")
+    private int primaryPoolSize;
+
+    @Value("${app.datasource.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${app.datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${app.datasource.replica.maximum-pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${app.datasource.replica.connection-timeout:1s}")
+    private Duration replicaConnectionTimeout;
+
+    @Value("${app.datasource.replica.max-lag:5s}")
+    private Duration replicaMaxLag;
+
+    @Value("${app.datasource.replica.lag-check-interval:2s}")
+    private Duration replicaLagCheckInterval;
+
+    @Value("${app.datasource.read-your-writes-window:10s}")
+    private Duration readYourWritesWindow;
+
+    @Bean
+    public ReadWriteRoutingDataSource dataSource(Environment environment, MeterRegistry meterRegistry) {
+        ReadYourWritesTracker readYourWrites = new ReadYourWritesTracker(readYourWritesWindow);
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = pool(applicationName + "-primary", primaryUrl, primaryUsername, primaryPassword,
+                primaryPoolSize, binder, meterRegistry);
+        if (!StringUtils.hasText(replicaUrl)) {
+            return new ReadWriteRoutingDataSource(primary, null, null, readYourWrites, meterRegistry);
+        }
+        String replicaPoolName = applicationName + "-replica";
+        HikariDataSource replica = pool(replicaPoolName, replicaUrl, replicaUsername, replicaPassword,
+                replicaPoolSize, binder, meterRegistry);
+        replica.setMaximumPoolSize(replicaPoolSize);
+        replica.setReadOnly(true);
+        // Short, so an unreachable or exhausted replica falls back to the primary instead of stalling reads
+        replica.setConnectionTimeout(replicaConnectionTimeout.toMillis());
+        ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(replica, replicaPoolName, replicaMaxLag,
+                replicaLagCheckInterval, meterRegistry);
+        return new ReadWriteRoutingDataSource(primary, replica, lagMonitor, readYourWrites, meterRegistry);
+    }
+
+    @Bean
+    public ClientIdFilter clientIdFilter() {
+        return new ClientIdFilter();
+    }
+
+    // Pools start on first use (not in the constructor), so the context can be built without a database
+    private static HikariDataSource pool(String name, String url, String username, String password, int size,
+                                         Binder binder, MeterRegistry meterRegistry) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setMaximumPoolSize(size);
+        // Lets the driver send a JDBC batch of inserts as multi-row INSERT statements
+        pool.addDataSourceProperty("reWriteBatchedInserts", "true");
+        // Explicit spring.datasource.hikari.* settings win over the defaults above
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        // Name and connection stay per pool, so the two pools never share a metrics name
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
@@ -0,0 +1,30 @@
+package com.org.springboot4.userservice.controller;
+
+import com.org.springboot4.infra.kafka.DeadLetterReplayResult;
+import com.org.springboot4.infra.kafka.DeadLetterReplayer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Re-drives parked records from this service's dead-letter topics back onto their main topics.
+ * Call repeatedly until {@code remaining} reaches zero.
+ */
+@RestController
+@RequestMapping("/admin/dlt")
+@RequiredArgsConstructor
+public class DeadLetterController {
+    
+    private static final int MAX_REPLAY_BATCH = 1000;
+    
+    private final DeadLetterReplayer deadLetterReplayer;
+    
+    @PostMapping("/{topic}/replay")
+    public ResponseEntity<DeadLetterReplayResult> replay(@PathVariable String topic,
+                                                         @RequestParam(defaultValue = "100") int maxRecords) {
+        if (!deadLetterReplayer.deadLetterTopics().contains(topic) || maxRecords < 1 || maxRecords > MAX_REPLAY_BATCH) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(deadLetterReplayer.replay(topic, maxRecords));
+    }
+}
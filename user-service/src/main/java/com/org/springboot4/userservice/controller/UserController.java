@@ -1,7 +1,14 @@
 package com.org.springboot4.userservice.controller;
 
+import com.org.springboot4.userservice.dto.BatchGetUsersRequest;
 import com.org.springboot4.userservice.dto.CreateUserRequest;
+import com.org.springboot4.userservice.dto.CreditReservationDto;
+import com.org.springboot4.userservice.dto.ReserveCreditRequest;
+import com.org.springboot4.userservice.dto.UserBatchDto;
 import com.org.springboot4.userservice.dto.UserDto;
+import com.org.springboot4.userservice.dto.UserImportResultDto;
+import com.org.springboot4.userservice.service.UserImportFormat;
+import com.org.springboot4.userservice.service.UserImportService;
 import com.org.springboot4.userservice.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -9,6 +16,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -17,6 +26,7 @@ import java.util.UUID;
 public class UserController {
     
     private final UserService userService;
+    private final UserImportService userImportService;
     
     @PostMapping
     public ResponseEntity<UserDto> createUser(@Valid @RequestBody CreateUserRequest request) {
@@ -29,5 +39,40 @@ public class UserController {
         UserDto user = userService.getUserById(id);
         return ResponseEntity.ok(user);
     }
+    
+    // Synchronous credit reservation (order-service fast path); idempotent per orderId, shared with the saga
+    @PostMapping("/{id}/credit-reservations")
+    public ResponseEntity<CreditReservationDto> reserveCredit(@PathVariable UUID id,
+                                                              @Valid @RequestBody ReserveCreditRequest request) {
+        CreditReservationDto reservation = userService.reserveCredit(request.getOrderId(), id, request.getAmount());
+        return ResponseEntity.ok(reservation);
+    }
+    
+    // Multi-get: GET /users?ids=a,b,c resolves all ids in one query instead of one request per id
+    @GetMapping(params = "ids")
+    public ResponseEntity<UserBatchDto> getUsersByIds(@RequestParam List<UUID> ids) {
+        UserBatchDto users = userService.getUsersByIds(ids);
+        return ResponseEntity.ok(users);
+    }
+    
+    // POST variant of the multi-get for id sets too large for a query string
+    @PostMapping("/batch")
+    public ResponseEntity<UserBatchDto> getUsersByIdsBatch(@Valid @RequestBody BatchGetUsersRequest request) {
+        UserBatchDto users = userService.getUsersByIds(request.getIds());
+        return ResponseEntity.ok(users);
+    }
+    
+    // Bulk import: streams CSV rows (username,initialBalance) straight into PostgreSQL COPY
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<UserImportResultDto> importUsersCsv(InputStream body) {
+        UserImportResultDto result = userImportService.importUsers(body, UserImportFormat.CSV);
+        return ResponseEntity.ok(result);
+    }
+    
+    // Bulk import: streams NDJSON CreateUserRequest rows straight into PostgreSQL COPY
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ResponseEntity<UserImportResultDto> importUsersNdjson(InputStream body) {
+        UserImportResultDto result = userImportService.importUsers(body, UserImportFormat.NDJSON);
+        return ResponseEntity.ok(result);
+    }
 }
-
@@ -0,0 +1,53 @@
+package com.org.springboot4.userservice.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "credit_reservations")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreditReservation {
+    
+    // Assigned from the order, never generated: the order id is the idempotency key
+    @Id
+    @Column(name = "order_id")
+    private UUID orderId;
+    
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+    
+    @Column(nullable = false)
+    private Long amount;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CreditReservationStatus status;
+    
+    private String reason;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,11 @@
+package com.org.springboot4.userservice.domain;
+
+/**
+ * RESERVED: credit taken from the balance. REJECTED: reservation refused, balance untouched.
+ * RELEASED: credit given back, or the order was canceled before any reservation (nothing to give back).
+ */
+public enum CreditReservationStatus {
+    RESERVED,
+    REJECTED,
+    RELEASED
+}
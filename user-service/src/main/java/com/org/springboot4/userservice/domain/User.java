@@ -1,10 +1,12 @@
 package com.org.springboot4.userservice.domain;
 
+import com.org.springboot4.infra.id.UuidV7Generator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -17,8 +19,9 @@ import java.util.UUID;
 @AllArgsConstructor
 public class User {
     
+    // Time-ordered (UUIDv7) so new rows append to the primary key index
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
     
     @Column(nullable = false, unique = true)
@@ -0,0 +1,17 @@
+package com.org.springboot4.userservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class BatchGetUsersRequest {
+
+    @NotEmpty(message = "At least one user ID is required")
+    @Size(max = 1000, message = "At most 1000 user IDs can be requested at once")
+    private List<@NotNull(message = "User ID must not be null") UUID> ids;
+}
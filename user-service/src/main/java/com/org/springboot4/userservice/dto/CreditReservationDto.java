@@ -0,0 +1,21 @@
+package com.org.springboot4.userservice.dto;
+
+import com.org.springboot4.userservice.domain.CreditReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreditReservationDto {
+    private UUID orderId;
+    private UUID userId;
+    private Long amount;
+    private CreditReservationStatus status;
+    private String reason;
+}
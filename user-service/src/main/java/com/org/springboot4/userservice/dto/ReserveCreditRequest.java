@@ -0,0 +1,22 @@
+package com.org.springboot4.userservice.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReserveCreditRequest {
+    
+    @NotNull(message = "Order ID is required")
+    private UUID orderId;
+    
+    @NotNull(message = "Amount is required")
+    @Min(value = 1, message = "Amount must be positive")
+    private Long amount;
+}
@@ -0,0 +1,21 @@
+package com.org.springboot4.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Result of a multi-get: found users in request order plus the ids that did not resolve.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchDto {
+    private List<UserDto> users;
+    private List<UUID> missingIds;
+}
@@ -0,0 +1,19 @@
+package com.org.springboot4.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single row of a bulk import that was not inserted, identified by its 1-based line number.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportRejectDto {
+    private long line;
+    private String username;
+    private String reason;
+}
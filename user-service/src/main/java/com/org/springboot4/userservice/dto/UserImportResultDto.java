@@ -0,0 +1,24 @@
+package com.org.springboot4.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. {@code rejects} holds at most the first
+ * {@code UserImportService.MAX_REPORTED_REJECTS} rejected rows; {@code rejected} is the full count.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResultDto {
+    private long received;
+    private long imported;
+    private long rejected;
+    private List<UserImportRejectDto> rejects;
+    private long durationMillis;
+}
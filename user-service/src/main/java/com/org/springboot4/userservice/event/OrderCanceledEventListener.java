@@ -10,6 +10,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Listens to OrderCanceledEvent and releases reserved credit (compensation).
+ * Only credit that was actually reserved for the order is released, and only once.
+ * Failures are retried through the retry topics instead of being dropped.
  */
 @Slf4j
 @Component
@@ -24,14 +26,9 @@ public class OrderCanceledEventListener {
         log.info("Received OrderCanceledEvent: orderId={}, userId={}, amount={}", 
                 event.orderId(), event.userId(), event.amount());
         
-        try {
-            userService.releaseCredit(event.userId(), event.amount());
-            log.info("Credit released successfully for orderId={}, userId={}, amount={}", 
-                    event.orderId(), event.userId(), event.amount());
-        } catch (Exception e) {
-            log.error("Error releasing credit for orderId={}, userId={}, amount={}", 
-                    event.orderId(), event.userId(), event.amount(), e);
-        }
+        userService.releaseCredit(event.orderId(), event.userId(), event.amount());
+        log.info("Credit release handled for orderId={}, userId={}, amount={}", 
+                event.orderId(), event.userId(), event.amount());
     }
 }
 
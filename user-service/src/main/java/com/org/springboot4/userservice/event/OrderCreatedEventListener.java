@@ -3,17 +3,27 @@ package com.org.springboot4.userservice.event;
 import com.org.springboot4.events.OrderCreatedEvent;
 import com.org.springboot4.events.UserCreditReservationFailedEvent;
 import com.org.springboot4.events.UserCreditReservedEvent;
+import com.org.springboot4.infra.kafka.EventPublisher;
+import com.org.springboot4.infra.kafka.SagaHeaders;
+import com.org.springboot4.userservice.domain.CreditReservationStatus;
+import com.org.springboot4.userservice.dto.CreditReservationDto;
 import com.org.springboot4.userservice.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+
 /**
  * Listens to OrderCreatedEvent and reserves credit.
  * Publishes UserCreditReservedEvent on success, UserCreditReservationFailedEvent on failure.
+ * The saga start header is copied onto the reply so order-service can measure end-to-end latency.
+ * Reservations are idempotent per order: a redelivered event, or one for an order whose credit was already
+ * reserved through the synchronous endpoint, republishes the recorded outcome without charging again.
+ * Unexpected (possibly transient) errors propagate and are retried through the retry topics.
  */
 @Slf4j
 @Component
@@ -21,53 +31,48 @@ import org.springframework.transaction.annotation.Transactional;
 public class OrderCreatedEventListener {
     
     private final UserService userService;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final EventPublisher eventPublisher;
     
     @KafkaListener(topics = "order.created", groupId = "user-service-group")
     @Transactional
-    public void handleOrderCreated(OrderCreatedEvent event) {
+    public void handleOrderCreated(OrderCreatedEvent event,
+                                   @Header(name = SagaHeaders.SAGA_STARTED_AT, required = false) byte[] sagaStartedAtHeader) {
+        Instant sagaStartedAt = SagaHeaders.decodeInstant(sagaStartedAtHeader);
         log.info("Received OrderCreatedEvent: orderId={}, userId={}, amount={}", 
                 event.orderId(), event.userId(), event.amount());
         
-        try {
-            boolean reserved = userService.reserveCredit(event.userId(), event.amount());
-            
-            if (reserved) {
-                log.info("Credit reserved successfully for orderId={}, userId={}, amount={}", 
-                        event.orderId(), event.userId(), event.amount());
-                
-                UserCreditReservedEvent creditReservedEvent = new UserCreditReservedEvent(
-                        event.orderId(),
-                        event.userId(),
-                        event.amount()
-                );
-                
-                kafkaTemplate.send("user.credit-reserved", creditReservedEvent);
-            } else {
-                log.warn("Insufficient balance for orderId={}, userId={}, amount={}", 
-                        event.orderId(), event.userId(), event.amount());
-                
-                UserCreditReservationFailedEvent failedEvent = new UserCreditReservationFailedEvent(
-                        event.orderId(),
-                        event.userId(),
-                        event.amount(),
-                        "Insufficient balance"
-                );
-                
-                kafkaTemplate.send("user.credit-reservation-failed", failedEvent);
-            }
-        } catch (Exception e) {
-            log.error("Error processing OrderCreatedEvent for orderId={}", event.orderId(), e);
+        CreditReservationDto reservation = userService.reserveCredit(event.orderId(), event.userId(), event.amount());
+        
+        if (reservation.getStatus() == CreditReservationStatus.RESERVED) {
+            log.info("Credit reserved successfully for orderId={}, userId={}, amount={}", 
+                    event.orderId(), event.userId(), event.amount());
             
-            UserCreditReservationFailedEvent failedEvent = new UserCreditReservationFailedEvent(
+            UserCreditReservedEvent creditReservedEvent = new UserCreditReservedEvent(
                     event.orderId(),
                     event.userId(),
-                    event.amount(),
-                    "Error: " + e.getMessage()
+                    event.amount()
             );
             
-            kafkaTemplate.send("user.credit-reservation-failed", failedEvent);
+            eventPublisher.publish("user.credit-reserved", event.orderId().toString(), creditReservedEvent,
+                    sagaStartedAt);
+        } else {
+            // Rejected (unknown user, insufficient balance) or already released by a cancellation: permanent
+            log.warn("Credit not reserved for orderId={}, userId={}, amount={}: {}", 
+                    event.orderId(), event.userId(), event.amount(), reservation.getReason());
+            publishReservationFailed(event, reservation.getReason(), sagaStartedAt);
         }
     }
+    
+    private void publishReservationFailed(OrderCreatedEvent event, String reason, Instant sagaStartedAt) {
+        UserCreditReservationFailedEvent failedEvent = new UserCreditReservationFailedEvent(
+                event.orderId(),
+                event.userId(),
+                event.amount(),
+                reason
+        );
+        
+        eventPublisher.publish("user.credit-reservation-failed", event.orderId().toString(), failedEvent,
+                sagaStartedAt);
+    }
 }
 
@@ -0,0 +1,11 @@
+package com.org.springboot4.userservice.mapper;
+
+import com.org.springboot4.userservice.domain.CreditReservation;
+import com.org.springboot4.userservice.dto.CreditReservationDto;
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingConstants;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface CreditReservationMapper {
+    CreditReservationDto toDto(CreditReservation reservation);
+}
@@ -0,0 +1,11 @@
+package com.org.springboot4.userservice.repository;
+
+import com.org.springboot4.userservice.domain.CreditReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface CreditReservationRepository extends JpaRepository<CreditReservation, UUID> {
+}
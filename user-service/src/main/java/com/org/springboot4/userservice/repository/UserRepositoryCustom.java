@@ -0,0 +1,16 @@
+package com.org.springboot4.userservice.repository;
+
+import com.org.springboot4.userservice.dto.UserDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Custom queries that bypass entity hydration and project straight into DTOs.
+ */
+public interface UserRepositoryCustom {
+
+    // Resolves all ids with a single WHERE id = ANY(?) round trip; order of the result is unspecified
+    List<UserDto> findDtosByIds(Collection<UUID> ids);
+}
@@ -0,0 +1,38 @@
+package com.org.springboot4.userservice.repository;
+
+import com.org.springboot4.userservice.dto.UserDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC-backed implementation of {@link UserRepositoryCustom}.
+ * Binds the ids as a single uuid[] parameter so the statement text (and its plan) is the same for every batch size.
+ */
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final String FIND_BY_IDS_SQL =
+            "SELECT id, username, balance, created_at FROM users WHERE id = ANY(?)";
+
+    private static final RowMapper<UserDto> USER_DTO_ROW_MAPPER = (rs, rowNum) -> UserDto.builder()
+            .id(rs.getObject("id", UUID.class))
+            .username(rs.getString("username"))
+            .balance(rs.getLong("balance"))
+            .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<UserDto> findDtosByIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(FIND_BY_IDS_SQL, USER_DTO_ROW_MAPPER, (Object) ids.toArray(UUID[]::new));
+    }
+}
@@ -0,0 +1,10 @@
+package com.org.springboot4.userservice.service;
+
+/**
+ * Wire formats accepted by the bulk user import.
+ * CSV rows are {@code username,initialBalance} (optional header line); NDJSON rows are one CreateUserRequest per line.
+ */
+public enum UserImportFormat {
+    CSV,
+    NDJSON
+}
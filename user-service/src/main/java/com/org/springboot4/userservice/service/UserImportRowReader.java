@@ -0,0 +1,144 @@
+package com.org.springboot4.userservice.service;
+
+import com.org.springboot4.userservice.dto.CreateUserRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Pull-style reader over a CSV or NDJSON import stream.
+ * Holds only the current line, so memory stays constant regardless of the import size.
+ * Rows that cannot be parsed or fail CreateUserRequest validation are returned with an error instead of throwing.
+ */
+class UserImportRowReader {
+
+    static final int MAX_USERNAME_LENGTH = 255;
+
+    record Row(long line, String username, Long balance, String error) {
+        boolean valid() {
+            return error == null;
+        }
+    }
+
+    private final BufferedReader reader;
+    private final UserImportFormat format;
+    private final JsonMapper jsonMapper;
+    private final Validator validator;
+    private long lineNumber;
+
+    UserImportRowReader(BufferedReader reader, UserImportFormat format, JsonMapper jsonMapper, Validator validator) {
+        this.reader = reader;
+        this.format = format;
+        this.jsonMapper = jsonMapper;
+        this.validator = validator;
+    }
+
+    // Returns the next non-blank row, or null at end of stream
+    Row next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == UserImportFormat.CSV && lineNumber == 1 && isCsvHeader(line)) {
+                continue;
+            }
+            return format == UserImportFormat.CSV ? parseCsv(line) : parseNdjson(line);
+        }
+        return null;
+    }
+
+    private Row parseNdjson(String line) {
+        CreateUserRequest request;
+        try {
+            request = jsonMapper.readValue(line, CreateUserRequest.class);
+        } catch (JacksonException e) {
+            return new Row(lineNumber, null, null, "Malformed JSON: " + e.getOriginalMessage());
+        }
+        return validate(request);
+    }
+
+    private Row parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields == null || fields.size() != 2) {
+            return new Row(lineNumber, null, null, "Expected 2 CSV columns: username,initialBalance");
+        }
+        CreateUserRequest request = new CreateUserRequest();
+        request.setUsername(fields.get(0));
+        String balance = fields.get(1).trim();
+        if (!balance.isEmpty()) {
+            try {
+                request.setInitialBalance(Long.parseLong(balance));
+            } catch (NumberFormatException e) {
+                return new Row(lineNumber, request.getUsername(), null, "Initial balance must be a whole number");
+            }
+        }
+        return validate(request);
+    }
+
+    private Row validate(CreateUserRequest request) {
+        Set<ConstraintViolation<CreateUserRequest>> violations = validator.validate(request);
+        String username = request.getUsername();
+        if (!violations.isEmpty()) {
+            String error = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            return new Row(lineNumber, username, request.getInitialBalance(), error);
+        }
+        if (username.length() > MAX_USERNAME_LENGTH) {
+            return new Row(lineNumber, username, request.getInitialBalance(),
+                    "Username must be at most " + MAX_USERNAME_LENGTH + " characters");
+        }
+        return new Row(lineNumber, username, request.getInitialBalance(), null);
+    }
+
+    // Only an exact "username" first field is a header; a data row like "username1,50" is imported
+    private static boolean isCsvHeader(String line) {
+        List<String> fields = splitCsv(line);
+        return fields != null && !fields.isEmpty() && fields.get(0).trim().equalsIgnoreCase("username");
+    }
+
+    // Minimal RFC 4180 field splitter for a single line; returns null on an unterminated quote
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(2);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,231 @@
+package com.org.springboot4.userservice.service;
+
+import com.org.springboot4.infra.id.UuidV7;
+import com.org.springboot4.userservice.dto.UserImportRejectDto;
+import com.org.springboot4.userservice.dto.UserImportResultDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streaming bulk import of users via PostgreSQL COPY FROM STDIN.
+ * <p>
+ * Rows are parsed and validated one line at a time and piped into a session-local staging table, so
+ * application memory stays constant. A single set-based INSERT ... ON CONFLICT then moves the first
+ * occurrence of each username into {@code users}; everything else is reported as a reject.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+    public static final int MAX_REPORTED_REJECTS = 1000;
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String CREATE_STAGING_SQL = """
+            CREATE TEMP TABLE users_import_staging (
+                line_no BIGINT NOT NULL,
+                id UUID NOT NULL,
+                username TEXT NOT NULL,
+                balance BIGINT NOT NULL
+            ) ON COMMIT DROP""";
+
+    private static final String CREATE_ACCEPTED_SQL =
+            "CREATE TEMP TABLE users_import_accepted (line_no BIGINT PRIMARY KEY) ON COMMIT DROP";
+
+    private static final String COPY_SQL =
+            "COPY users_import_staging (line_no, id, username, balance) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String INDEX_STAGING_SQL =
+            "CREATE INDEX ON users_import_staging (username, line_no)";
+
+    private static final String ANALYZE_STAGING_SQL = "ANALYZE users_import_staging";
+
+    // First occurrence of each username wins; ON CONFLICT skips usernames that already exist
+    private static final String INSERT_SQL = """
+            WITH candidates AS (
+                SELECT DISTINCT ON (username) line_no, id, username, balance
+                FROM users_import_staging
+                ORDER BY username, line_no
+            ), inserted AS (
+                INSERT INTO users (id, username, balance, created_at)
+                SELECT id, username, balance, ? FROM candidates
+                ON CONFLICT (username) DO NOTHING
+                RETURNING id
+            )
+            INSERT INTO users_import_accepted (line_no)
+            SELECT c.line_no FROM candidates c JOIN inserted i ON i.id = c.id""";
+
+    private static final String REJECTS_SQL = """
+            SELECT s.line_no, s.username,
+                   EXISTS (SELECT 1 FROM users_import_staging d
+                           WHERE d.username = s.username AND d.line_no < s.line_no) AS duplicate_in_import
+            FROM users_import_staging s
+            WHERE NOT EXISTS (SELECT 1 FROM users_import_accepted a WHERE a.line_no = s.line_no)
+            ORDER BY s.line_no
+            LIMIT ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonMapper jsonMapper;
+    private final Validator validator;
+    private final MeterRegistry meterRegistry;
+
+    private final Counter receivedRows;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+    private final AtomicInteger activeImports = new AtomicInteger();
+    private final AtomicLong rowsInFlight = new AtomicLong();
+
+    public UserImportService(JdbcTemplate jdbcTemplate, JsonMapper jsonMapper, Validator validator,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jsonMapper = jsonMapper;
+        this.validator = validator;
+        this.meterRegistry = meterRegistry;
+        this.receivedRows = rowCounter("received");
+        this.importedRows = rowCounter("imported");
+        this.rejectedRows = rowCounter("rejected");
+        meterRegistry.gauge("users.import.active", activeImports);
+        meterRegistry.gauge("users.import.progress.rows", rowsInFlight);
+    }
+
+    @Transactional
+    public UserImportResultDto importUsers(InputStream body, UserImportFormat format) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long startNanos = System.nanoTime();
+        activeImports.incrementAndGet();
+        try {
+            jdbcTemplate.execute(CREATE_STAGING_SQL);
+            jdbcTemplate.execute(CREATE_ACCEPTED_SQL);
+
+            List<UserImportRejectDto> rejects = new ArrayList<>();
+            StreamStats stats = jdbcTemplate.execute(
+                    (ConnectionCallback<StreamStats>) connection -> copyRows(connection.unwrap(PGConnection.class),
+                            body, format, rejects));
+
+            jdbcTemplate.execute(INDEX_STAGING_SQL);
+            jdbcTemplate.execute(ANALYZE_STAGING_SQL);
+            long imported = jdbcTemplate.update(INSERT_SQL, Timestamp.valueOf(LocalDateTime.now()));
+            long conflicted = stats.staged() - imported;
+
+            int remaining = MAX_REPORTED_REJECTS - rejects.size();
+            if (conflicted > 0 && remaining > 0) {
+                rejects.addAll(jdbcTemplate.query(REJECTS_SQL, (rs, rowNum) -> UserImportRejectDto.builder()
+                        .line(rs.getLong("line_no"))
+                        .username(rs.getString("username"))
+                        .reason(rs.getBoolean("duplicate_in_import")
+                                ? "Duplicate username in import"
+                                : "Username already exists")
+                        .build(), remaining));
+                rejects.sort(Comparator.comparingLong(UserImportRejectDto::getLine));
+            }
+
+            long rejected = stats.invalid() + conflicted;
+            importedRows.increment(imported);
+            rejectedRows.increment(rejected);
+            long durationMillis = (System.nanoTime() - startNanos) / 1_000_000;
+            log.info("Bulk user import finished: format={}, received={}, imported={}, rejected={}, durationMs={}",
+                    format, stats.received(), imported, rejected, durationMillis);
+
+            return UserImportResultDto.builder()
+                    .received(stats.received())
+                    .imported(imported)
+                    .rejected(rejected)
+                    .rejects(rejects)
+                    .durationMillis(durationMillis)
+                    .build();
+        } finally {
+            activeImports.decrementAndGet();
+            sample.stop(meterRegistry.timer("users.import.duration", "format", format.name().toLowerCase()));
+        }
+    }
+
+    private StreamStats copyRows(PGConnection connection, InputStream body, UserImportFormat format,
+                                 List<UserImportRejectDto> rejects) throws SQLException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        UserImportRowReader rows = new UserImportRowReader(reader, format, jsonMapper, validator);
+        PGCopyOutputStream copy = new PGCopyOutputStream(connection, COPY_SQL, COPY_BUFFER_SIZE);
+        long received = 0;
+        long invalid = 0;
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8));
+            UserImportRowReader.Row row;
+            while ((row = rows.next()) != null) {
+                received++;
+                receivedRows.increment();
+                rowsInFlight.incrementAndGet();
+                if (row.valid()) {
+                    writeCsvRow(writer, row);
+                } else {
+                    invalid++;
+                    if (rejects.size() < MAX_REPORTED_REJECTS) {
+                        rejects.add(UserImportRejectDto.builder()
+                                .line(row.line())
+                                .username(row.username())
+                                .reason(row.error())
+                                .build());
+                    }
+                }
+            }
+            writer.flush();
+            long staged = copy.endCopy();
+            return new StreamStats(received, invalid, staged);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to stream user import", e);
+        } finally {
+            // Leaves the connection usable for the rollback if streaming failed part-way
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+            rowsInFlight.addAndGet(-received);
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, UserImportRowReader.Row row) throws IOException {
+        writer.write(Long.toString(row.line()));
+        writer.write(',');
+        writer.write(UuidV7.next().toString());
+        writer.write(",\"");
+        writer.write(row.username().replace("\"", "\"\""));
+        writer.write("\",");
+        writer.write(Long.toString(row.balance()));
+        writer.write('\n');
+    }
+
+    private Counter rowCounter(String outcome) {
+        return Counter.builder("users.import.rows")
+                .description("Rows processed by the bulk user import")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record StreamStats(long received, long invalid, long staged) {
+    }
+}
@@ -1,22 +1,42 @@
 package com.org.springboot4.userservice.service;
 
+import com.org.springboot4.userservice.domain.CreditReservation;
+import com.org.springboot4.userservice.domain.CreditReservationStatus;
 import com.org.springboot4.userservice.domain.User;
 import com.org.springboot4.userservice.dto.CreateUserRequest;
+import com.org.springboot4.userservice.dto.CreditReservationDto;
+import com.org.springboot4.userservice.dto.UserBatchDto;
 import com.org.springboot4.userservice.dto.UserDto;
+import com.org.springboot4.userservice.mapper.CreditReservationMapper;
 import com.org.springboot4.userservice.mapper.UserMapper;
+import com.org.springboot4.userservice.repository.CreditReservationRepository;
 import com.org.springboot4.userservice.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
     
+    public static final int MAX_BATCH_SIZE = 1000;
+    
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final CreditReservationRepository creditReservationRepository;
+    private final CreditReservationMapper creditReservationMapper;
     
     @Transactional
     public UserDto createUser(CreateUserRequest request) {
@@ -36,30 +56,100 @@ public class UserService {
         return userMapper.toDto(user);
     }
     
+    /**
+     * Resolves several users with a single query.
+     * Users come back in request order (duplicates collapsed); ids without a row are reported in missingIds.
+     */
+    @Transactional(readOnly = true)
+    public UserBatchDto getUsersByIds(Collection<UUID> ids) {
+        Set<UUID> requestedIds = new LinkedHashSet<>(ids);
+        if (requestedIds.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_BATCH_SIZE + " user IDs can be requested at once");
+        }
+        
+        Map<UUID, UserDto> found = new HashMap<>();
+        for (UserDto user : userRepository.findDtosByIds(requestedIds)) {
+            found.put(user.getId(), user);
+        }
+        
+        List<UserDto> users = new ArrayList<>(found.size());
+        List<UUID> missingIds = new ArrayList<>();
+        for (UUID id : requestedIds) {
+            UserDto user = found.get(id);
+            if (user != null) {
+                users.add(user);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return UserBatchDto.builder()
+                .users(users)
+                .missingIds(missingIds)
+                .build();
+    }
+    
+    /**
+     * Reserves credit for an order, at most once per order.
+     * The user row is locked first, so concurrent attempts for the same order (synchronous endpoint, saga
+     * listener, retries) are serialized; every attempt after the first returns the recorded outcome without
+     * touching the balance again.
+     */
     @Transactional
-    public boolean reserveCredit(UUID userId, Long amount) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+    public CreditReservationDto reserveCredit(UUID orderId, UUID userId, Long amount) {
+        Optional<User> user = userRepository.findByIdForUpdate(userId);
+        Optional<CreditReservation> existing = creditReservationRepository.findById(orderId);
+        if (existing.isPresent()) {
+            return creditReservationMapper.toDto(existing.get());
+        }
         
-        if (user.getBalance() >= amount) {
-            user.setBalance(user.getBalance() - amount);
-            userRepository.save(user);
-            return true;
+        CreditReservation reservation = CreditReservation.builder()
+                .orderId(orderId)
+                .userId(userId)
+                .amount(amount)
+                .build();
+        if (user.isEmpty()) {
+            reservation.setStatus(CreditReservationStatus.REJECTED);
+            reservation.setReason("User not found");
+        } else if (user.get().getBalance() >= amount) {
+            user.get().setBalance(user.get().getBalance() - amount);
+            userRepository.save(user.get());
+            reservation.setStatus(CreditReservationStatus.RESERVED);
+        } else {
+            reservation.setStatus(CreditReservationStatus.REJECTED);
+            reservation.setReason("Insufficient balance");
         }
-        return false;
+        return creditReservationMapper.toDto(creditReservationRepository.save(reservation));
     }
     
     /**
-     * Releases reserved credit (compensation transaction).
-     * Called when an order is canceled.
+     * Releases the credit reserved for an order (compensation transaction), at most once.
+     * Only a RESERVED reservation gives credit back; a rejected one never took any. When the order is canceled
+     * before its reservation arrived, a RELEASED marker is stored so the late reservation is refused.
      */
     @Transactional
-    public void releaseCredit(UUID userId, Long amount) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+    public void releaseCredit(UUID orderId, UUID userId, Long amount) {
+        Optional<User> user = userRepository.findByIdForUpdate(userId);
+        Optional<CreditReservation> existing = creditReservationRepository.findById(orderId);
+        if (existing.isEmpty()) {
+            creditReservationRepository.save(CreditReservation.builder()
+                    .orderId(orderId)
+                    .userId(userId)
+                    .amount(amount)
+                    .status(CreditReservationStatus.RELEASED)
+                    .reason("Order canceled before reservation")
+                    .build());
+            return;
+        }
         
-        user.setBalance(user.getBalance() + amount);
-        userRepository.save(user);
+        CreditReservation reservation = existing.get();
+        if (reservation.getStatus() != CreditReservationStatus.RESERVED) {
+            return;
+        }
+        User owner = user.orElseThrow(() -> new RuntimeException("User not found: " + userId));
+        owner.setBalance(owner.getBalance() + reservation.getAmount());
+        userRepository.save(owner);
+        reservation.setStatus(CreditReservationStatus.RELEASED);
+        creditReservationRepository.save(reservation);
     }
 }
-
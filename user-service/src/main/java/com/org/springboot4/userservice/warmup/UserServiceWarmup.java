@@ -0,0 +1,90 @@
+package com.org.springboot4.userservice.warmup;
+
+import com.org.springboot4.events.OrderCanceledEvent;
+import com.org.springboot4.events.OrderCreatedEvent;
+import com.org.springboot4.infra.id.UuidV7;
+import com.org.springboot4.infra.warmup.EventCodecRoundTrip;
+import com.org.springboot4.infra.warmup.WarmupIteration;
+import com.org.springboot4.userservice.controller.UserController;
+import com.org.springboot4.userservice.dto.CreateUserRequest;
+import com.org.springboot4.userservice.dto.ReserveCreditRequest;
+import com.org.springboot4.userservice.dto.UserDto;
+import com.org.springboot4.userservice.event.OrderCanceledEventListener;
+import com.org.springboot4.userservice.event.OrderCreatedEventListener;
+import jakarta.validation.Validator;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Synthetic traffic for the warm-up: a user is created, read and charged through UserController (request and
+ * response JSON included), then an order for it goes through the OrderCreated and OrderCanceled listeners with
+ * events decoded by the Kafka codecs. Every write is rolled back by WarmupRunner.
+ */
+@Component
+public class UserServiceWarmup implements WarmupIteration {
+    
+    private final UserController userController;
+    private final OrderCreatedEventListener orderCreatedEventListener;
+    private final OrderCanceledEventListener orderCanceledEventListener;
+    private final JsonMapper jsonMapper;
+    private final Validator validator;
+    private final EventCodecRoundTrip eventCodec;
+    
+    public UserServiceWarmup(UserController userController,
+                             OrderCreatedEventListener orderCreatedEventListener,
+                             OrderCanceledEventListener orderCanceledEventListener,
+                             JsonMapper jsonMapper, Validator validator,
+                             ProducerFactory<String, Object> producerFactory,
+                             ConsumerFactory<String, Object> consumerFactory) {
+        this.userController = userController;
+        this.orderCreatedEventListener = orderCreatedEventListener;
+        this.orderCanceledEventListener = orderCanceledEventListener;
+        this.jsonMapper = jsonMapper;
+        this.validator = validator;
+        this.eventCodec = new EventCodecRoundTrip(producerFactory, consumerFactory);
+    }
+    
+    @Override
+    public void run(int iteration) {
+        // Unique per call: replicas warming up against one database would otherwise wait on each other's
+        // uncommitted username, and an existing user with the name would end the warm-up
+        CreateUserRequest createUser = request(
+                "{\"username\":\"warmup-" + UuidV7.next() + "\",\"initialBalance\":1000}", CreateUserRequest.class);
+        UserDto user = respond(userController.createUser(createUser).getBody());
+        UUID userId = user.getId();
+        
+        respond(userController.getUserById(userId).getBody());
+        respond(userController.getUsersByIds(List.of(userId)).getBody());
+        
+        ReserveCreditRequest reserveCredit = request(
+                "{\"orderId\":\"" + UuidV7.next() + "\",\"amount\":100}", ReserveCreditRequest.class);
+        respond(userController.reserveCredit(userId, reserveCredit).getBody());
+        
+        // Alternate reserved and rejected reservations so both listener branches are compiled
+        UUID orderId = UuidV7.next();
+        long amount = iteration % 2 == 0 ? 100 : 100_000;
+        orderCreatedEventListener.handleOrderCreated(
+                eventCodec.roundTrip("order.created", new OrderCreatedEvent(orderId, userId, amount)), null);
+        orderCanceledEventListener.handleOrderCanceled(
+                eventCodec.roundTrip("order.canceled", new OrderCanceledEvent(orderId, userId, amount)));
+    }
+    
+    // What the HTTP layer does with a request body before the controller sees it
+    private <T> T request(String json, Class<T> type) {
+        T request = jsonMapper.readValue(json, type);
+        if (!validator.validate(request).isEmpty()) {
+            throw new IllegalStateException("Invalid warm-up request: " + json);
+        }
+        return request;
+    }
+    
+    private <T> T respond(T body) {
+        jsonMapper.writeValueAsBytes(body);
+        return body;
+    }
+}
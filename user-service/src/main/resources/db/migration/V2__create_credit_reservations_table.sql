@@ -0,0 +1,13 @@
+-- One row per order: makes credit reservation and release idempotent across the synchronous fast path,
+-- the Kafka saga and their retries
+CREATE TABLE IF NOT EXISTS credit_reservations (
+    order_id UUID PRIMARY KEY,
+    user_id UUID NOT NULL,
+    amount BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    reason VARCHAR(255),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_credit_reservations_user_id ON credit_reservations(user_id);